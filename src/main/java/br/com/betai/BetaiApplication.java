@@ -2,10 +2,8 @@ package br.com.betai;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
-import org.springframework.retry.annotation.EnableRetry;
 import org.springframework.scheduling.annotation.EnableScheduling;
 
-@EnableRetry
 @EnableScheduling
 @SpringBootApplication
 public class BetaiApplication {
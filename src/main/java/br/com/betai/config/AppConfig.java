@@ -1,5 +1,6 @@
 package br.com.betai.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.client.RestTemplate;
@@ -23,12 +24,11 @@ public class AppConfig {
     @SuppressWarnings("null")
     @Bean
     public SqsMessageListenerContainerFactory<Object> defaultSqsListenerContainerFactory(
-            SqsAsyncClient sqsAsyncClient) {
-        return SqsMessageListenerContainerFactory.builder().configure(options -> options.maxMessagesPerPoll(1) // Pega
-                                                                                                               // apenas
-                                                                                                               // 1 por
-                                                                                                               // vez
-                .maxConcurrentMessages(1) // Garante apenas 1 thread ativa
-        ).sqsAsyncClient(sqsAsyncClient).build();
+            SqsAsyncClient sqsAsyncClient, @Value("${gemini.consumer.concurrency:4}") int concurrency) {
+        // O SQS entrega no máximo 10 mensagens por poll; a vazão real é limitada pelo GeminiRateLimiter
+        return SqsMessageListenerContainerFactory.builder()
+                .configure(options -> options.maxMessagesPerPoll(Math.min(concurrency, 10))
+                        .maxConcurrentMessages(concurrency))
+                .sqsAsyncClient(sqsAsyncClient).build();
     }
 }
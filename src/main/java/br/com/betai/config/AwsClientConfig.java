@@ -0,0 +1,105 @@
+package br.com.betai.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import software.amazon.awssdk.auth.credentials.DefaultCredentialsProvider;
+import software.amazon.awssdk.core.client.config.ClientOverrideConfiguration;
+import software.amazon.awssdk.http.SdkHttpClient;
+import software.amazon.awssdk.http.apache.ApacheHttpClient;
+import software.amazon.awssdk.http.async.SdkAsyncHttpClient;
+import software.amazon.awssdk.http.nio.netty.NettyNioAsyncHttpClient;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.dynamodb.DynamoDbAsyncClient;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.sqs.SqsClient;
+
+import java.time.Duration;
+
+/**
+ * Clientes do AWS SDK compartilhados como beans. Os síncronos usam um pool
+ * Apache único; o DynamoDB assíncrono (gravações em lote do write-behind) usa
+ * Netty com os mesmos limites de {@code aws.http.*}. O Spring fecha clientes e
+ * pools no shutdown.
+ */
+@Configuration
+public class AwsClientConfig {
+
+    @Value("${spring.cloud.aws.region.static:us-east-1}")
+    private String region;
+
+    @Value("${aws.http.max-connections:50}")
+    private int maxConnections;
+
+    @Value("${aws.http.connection-ttl-ms:60000}")
+    private long connectionTtlMs;
+
+    @Value("${aws.http.connection-max-idle-ms:60000}")
+    private long connectionMaxIdleMs;
+
+    @Value("${aws.http.tcp-keep-alive:true}")
+    private boolean tcpKeepAlive;
+
+    @Value("${aws.http.connection-timeout-ms:2000}")
+    private long connectionTimeoutMs;
+
+    @Value("${aws.http.socket-timeout-ms:30000}")
+    private long socketTimeoutMs;
+
+    @Value("${aws.http.connection-acquisition-timeout-ms:10000}")
+    private long acquisitionTimeoutMs;
+
+    /**
+     * Configuração comum dos clientes do AWS SDK: métricas de chamada no
+     * Micrometer e capacidade consumida do DynamoDB.
+     */
+    @Bean
+    public ClientOverrideConfiguration awsClientOverrideConfiguration(MicrometerMetricPublisher metricPublisher,
+            DynamoDbCapacityInterceptor capacityInterceptor) {
+        return ClientOverrideConfiguration.builder().addMetricPublisher(metricPublisher)
+                .addExecutionInterceptor(capacityInterceptor).build();
+    }
+
+    @Bean
+    public SdkHttpClient awsHttpClient() {
+        return ApacheHttpClient.builder().maxConnections(maxConnections)
+                .connectionTimeToLive(Duration.ofMillis(connectionTtlMs))
+                .connectionMaxIdleTime(Duration.ofMillis(connectionMaxIdleMs)).tcpKeepAlive(tcpKeepAlive)
+                .connectionTimeout(Duration.ofMillis(connectionTimeoutMs))
+                .socketTimeout(Duration.ofMillis(socketTimeoutMs))
+                .connectionAcquisitionTimeout(Duration.ofMillis(acquisitionTimeoutMs)).build();
+    }
+
+    @Bean
+    public SdkAsyncHttpClient awsAsyncHttpClient() {
+        return NettyNioAsyncHttpClient.builder().maxConcurrency(maxConnections)
+                .connectionTimeToLive(Duration.ofMillis(connectionTtlMs))
+                .connectionMaxIdleTime(Duration.ofMillis(connectionMaxIdleMs)).tcpKeepAlive(tcpKeepAlive)
+                .connectionTimeout(Duration.ofMillis(connectionTimeoutMs))
+                .readTimeout(Duration.ofMillis(socketTimeoutMs))
+                .connectionAcquisitionTimeout(Duration.ofMillis(acquisitionTimeoutMs)).build();
+    }
+
+    @Bean
+    public DynamoDbClient dynamoDbClient(SdkHttpClient awsHttpClient,
+            ClientOverrideConfiguration awsClientOverrideConfiguration) {
+        return DynamoDbClient.builder().region(Region.of(region))
+                .credentialsProvider(DefaultCredentialsProvider.create()).httpClient(awsHttpClient)
+                .overrideConfiguration(awsClientOverrideConfiguration).build();
+    }
+
+    @Bean
+    public DynamoDbAsyncClient dynamoDbAsyncClient(SdkAsyncHttpClient awsAsyncHttpClient,
+            ClientOverrideConfiguration awsClientOverrideConfiguration) {
+        return DynamoDbAsyncClient.builder().region(Region.of(region))
+                .credentialsProvider(DefaultCredentialsProvider.create()).httpClient(awsAsyncHttpClient)
+                .overrideConfiguration(awsClientOverrideConfiguration).build();
+    }
+
+    @Bean
+    public SqsClient sqsClient(SdkHttpClient awsHttpClient,
+            ClientOverrideConfiguration awsClientOverrideConfiguration) {
+        return SqsClient.builder().region(Region.of(region)).credentialsProvider(DefaultCredentialsProvider.create())
+                .httpClient(awsHttpClient).overrideConfiguration(awsClientOverrideConfiguration).build();
+    }
+}
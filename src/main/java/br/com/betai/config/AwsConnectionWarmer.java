@@ -0,0 +1,61 @@
+package br.com.betai.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.sqs.SqsClient;
+
+import java.util.concurrent.Executors;
+
+/**
+ * Abre as conexões do pool HTTP da AWS na subida da aplicação, para que o
+ * primeiro tick do agendador não pague o handshake TLS. Usa chamadas baratas e
+ * sem custo de capacidade (DescribeEndpoints e GetQueueUrl).
+ */
+@Component
+public class AwsConnectionWarmer {
+
+    private static final Logger log = LoggerFactory.getLogger(AwsConnectionWarmer.class);
+    private static final String ANALYSIS_QUEUE = "match-analyser-betai";
+
+    private final DynamoDbClient dynamoDbClient;
+    private final SqsClient sqsClient;
+
+    @Value("${aws.http.warmup-connections:4}")
+    private int warmupConnections;
+
+    public AwsConnectionWarmer(DynamoDbClient dynamoDbClient, SqsClient sqsClient) {
+        this.dynamoDbClient = dynamoDbClient;
+        this.sqsClient = sqsClient;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (warmupConnections <= 0) {
+            return;
+        }
+
+        long start = System.currentTimeMillis();
+        // Chamadas simultâneas forçam o pool a abrir uma conexão para cada uma
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < warmupConnections; i++) {
+                executor.execute(() -> warm("DynamoDB", () -> dynamoDbClient.describeEndpoints()));
+            }
+            executor.execute(() -> warm("SQS", () -> sqsClient.getQueueUrl(r -> r.queueName(ANALYSIS_QUEUE))));
+        }
+        log.info("Pool HTTP da AWS aquecido com {} conexões em {} ms", warmupConnections,
+                System.currentTimeMillis() - start);
+    }
+
+    private void warm(String service, Runnable call) {
+        try {
+            call.run();
+        } catch (Exception e) {
+            log.warn("Falha ao aquecer conexão com {}: {}", service, e.getMessage());
+        }
+    }
+}
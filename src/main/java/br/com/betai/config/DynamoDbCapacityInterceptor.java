@@ -0,0 +1,72 @@
+package br.com.betai.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.core.SdkResponse;
+import software.amazon.awssdk.core.interceptor.Context;
+import software.amazon.awssdk.core.interceptor.ExecutionAttributes;
+import software.amazon.awssdk.core.interceptor.ExecutionInterceptor;
+import software.amazon.awssdk.core.interceptor.SdkExecutionAttribute;
+import software.amazon.awssdk.services.dynamodb.model.BatchGetItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.ConsumedCapacity;
+import software.amazon.awssdk.services.dynamodb.model.GetItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.PutItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.QueryResponse;
+import software.amazon.awssdk.services.dynamodb.model.ScanResponse;
+import software.amazon.awssdk.services.dynamodb.model.UpdateItemResponse;
+
+import java.util.List;
+
+/**
+ * Registra a capacidade consumida (RCU/WCU) devolvida pelo DynamoDB quando a
+ * requisição pede {@code ReturnConsumedCapacity}, por operação e tabela. O
+ * {@link MicrometerMetricPublisher} não enxerga o nome da tabela, por isso a
+ * leitura é feita aqui, direto da resposta.
+ */
+@Component
+public class DynamoDbCapacityInterceptor implements ExecutionInterceptor {
+
+    private final MeterRegistry meterRegistry;
+
+    public DynamoDbCapacityInterceptor(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void afterExecution(Context.AfterExecution context, ExecutionAttributes executionAttributes) {
+        String operation = executionAttributes.getAttribute(SdkExecutionAttribute.OPERATION_NAME);
+        consumedCapacity(context.response()).forEach(capacity -> record(operation, capacity));
+    }
+
+    private List<ConsumedCapacity> consumedCapacity(SdkResponse response) {
+        if (response instanceof BatchGetItemResponse batch) {
+            return batch.hasConsumedCapacity() ? batch.consumedCapacity() : List.of();
+        }
+        ConsumedCapacity capacity = switch (response) {
+            case QueryResponse r -> r.consumedCapacity();
+            case ScanResponse r -> r.consumedCapacity();
+            case GetItemResponse r -> r.consumedCapacity();
+            case UpdateItemResponse r -> r.consumedCapacity();
+            case PutItemResponse r -> r.consumedCapacity();
+            default -> null;
+        };
+        return capacity == null ? List.of() : List.of(capacity);
+    }
+
+    private void record(String operation, ConsumedCapacity capacity) {
+        if (capacity == null || capacity.capacityUnits() == null) {
+            return;
+        }
+        String kind = isWrite(operation) ? "write" : "read";
+        Counter.builder("betai.dynamodb.consumed_capacity").description("Unidades de capacidade consumidas (RCU/WCU)")
+                .tags("operation", String.valueOf(operation), "table", String.valueOf(capacity.tableName()), "kind",
+                        kind)
+                .register(meterRegistry).increment(capacity.capacityUnits());
+    }
+
+    private boolean isWrite(String operation) {
+        return "PutItem".equals(operation) || "UpdateItem".equals(operation) || "DeleteItem".equals(operation)
+                || "BatchWriteItem".equals(operation) || "TransactWriteItems".equals(operation);
+    }
+}
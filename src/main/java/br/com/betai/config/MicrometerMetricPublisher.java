@@ -0,0 +1,72 @@
+package br.com.betai.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.core.metrics.CoreMetric;
+import software.amazon.awssdk.metrics.MetricCollection;
+import software.amazon.awssdk.metrics.MetricPublisher;
+import software.amazon.awssdk.metrics.SdkMetric;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Ponte entre as métricas do AWS SDK e o Micrometer. Cada chamada de API gera
+ * latência total, número de retries e throttles, marcados por serviço e
+ * operação.
+ */
+@Component
+public class MicrometerMetricPublisher implements MetricPublisher {
+
+    private static final String ATTEMPT = "ApiCallAttempt";
+    // Valor de CoreMetric.ERROR_TYPE (SdkErrorType.THROTTLING) por tentativa
+    private static final String THROTTLING = "Throttling";
+
+    private final MeterRegistry meterRegistry;
+
+    public MicrometerMetricPublisher(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void publish(MetricCollection metrics) {
+        String service = first(metrics, CoreMetric.SERVICE_ID, "unknown");
+        String operation = first(metrics, CoreMetric.OPERATION_NAME, "unknown");
+        boolean successful = first(metrics, CoreMetric.API_CALL_SUCCESSFUL, false);
+
+        Duration duration = first(metrics, CoreMetric.API_CALL_DURATION, null);
+        if (duration != null) {
+            Timer.builder("betai.aws.api_call").description("Latência das chamadas ao AWS SDK (com retries)")
+                    .tags("service", service, "operation", operation, "outcome", successful ? "success" : "error")
+                    .register(meterRegistry).record(duration);
+        }
+
+        int retries = first(metrics, CoreMetric.RETRY_COUNT, 0);
+        if (retries > 0) {
+            Counter.builder("betai.aws.retries").tags("service", service, "operation", operation)
+                    .register(meterRegistry).increment(retries);
+        }
+
+        // O SDK classifica cada tentativa pelo código de erro da AWS
+        // (ProvisionedThroughputExceededException, ThrottlingException, RequestLimitExceeded...),
+        // e não pelo status HTTP; a última tentativa também conta quando os retries se esgotam
+        long throttled = metrics.childrenWithName(ATTEMPT)
+                .filter(attempt -> THROTTLING.equals(first(attempt, CoreMetric.ERROR_TYPE, null))).count();
+        if (throttled > 0) {
+            Counter.builder("betai.aws.throttles").tags("service", service, "operation", operation)
+                    .register(meterRegistry).increment(throttled);
+        }
+    }
+
+    @Override
+    public void close() {
+        // O ciclo de vida do MeterRegistry é do Spring
+    }
+
+    private static <T> T first(MetricCollection metrics, SdkMetric<T> metric, T fallback) {
+        List<T> values = metrics.metricValues(metric);
+        return values.isEmpty() || values.get(0) == null ? fallback : values.get(0);
+    }
+}
@@ -1,6 +1,7 @@
 package br.com.betai.controller;
 
 import br.com.betai.domain.Fixture;
+import br.com.betai.domain.FixtureView;
 import br.com.betai.service.DynamoDBService;
 import br.com.betai.service.GeminiAnalysisService;
 import br.com.betai.service.MatchFilterService;
@@ -33,9 +34,13 @@ public class FixtureController {
     }
 
     @GetMapping
-    public List<Fixture> getFixtures(@RequestParam(required = false) String date) {
+    public List<Fixture> getFixtures(@RequestParam(required = false) String date,
+            @RequestParam(required = false) List<Long> ids) {
+        if (ids != null && !ids.isEmpty()) {
+            return dynamoDBService.getFixturesDataMapped(ids, FixtureView.LISTING);
+        }
         LocalDate localDate = (date != null) ? LocalDate.parse(date) : LocalDate.now();
-        return dynamoDBService.getFixturesByDateMapped(localDate);
+        return dynamoDBService.getFixturesByDateMapped(localDate, FixtureView.LISTING);
     }
 
     @GetMapping("/filter")
@@ -0,0 +1,40 @@
+package br.com.betai.controller;
+
+import br.com.betai.service.FixtureBlobMigrationService;
+import br.com.betai.service.FixtureGameDayBackfillService;
+import br.com.betai.service.FixtureSplitMigrationService;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/maintenance")
+public class MaintenanceController {
+
+    private final FixtureBlobMigrationService fixtureBlobMigrationService;
+    private final FixtureSplitMigrationService fixtureSplitMigrationService;
+    private final FixtureGameDayBackfillService fixtureGameDayBackfillService;
+
+    public MaintenanceController(FixtureBlobMigrationService fixtureBlobMigrationService,
+            FixtureSplitMigrationService fixtureSplitMigrationService,
+            FixtureGameDayBackfillService fixtureGameDayBackfillService) {
+        this.fixtureBlobMigrationService = fixtureBlobMigrationService;
+        this.fixtureSplitMigrationService = fixtureSplitMigrationService;
+        this.fixtureGameDayBackfillService = fixtureGameDayBackfillService;
+    }
+
+    @GetMapping("/compress-blobs")
+    public String compressBlobs() {
+        return fixtureBlobMigrationService.startCompression();
+    }
+
+    @GetMapping("/split-fixtures")
+    public String splitFixtures() {
+        return fixtureSplitMigrationService.startSplit();
+    }
+
+    @GetMapping("/backfill-game-day")
+    public String backfillGameDay() {
+        return fixtureGameDayBackfillService.startBackfill();
+    }
+}
@@ -0,0 +1,20 @@
+package br.com.betai.domain;
+
+/**
+ * Ciclo de vida da análise de IA de uma partida. As transições são gravadas
+ * com escrita condicional no DynamoDB, junto com {@code analysisVersion}.
+ */
+public enum AnalysisState {
+    QUEUED, IN_PROGRESS, DONE, FAILED;
+
+    public static AnalysisState fromValue(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return valueOf(value);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package br.com.betai.domain;
+
+import java.time.Instant;
+
+/**
+ * Estado da análise lido do item da partida. {@code version} é nulo enquanto a
+ * partida nunca passou pela fila de análise.
+ */
+public record AnalysisStatus(AnalysisState state, Long version, Instant updatedAt) {
+
+    public static final AnalysisStatus NONE = new AnalysisStatus(null, null, null);
+
+    public boolean isPending() {
+        return state == AnalysisState.QUEUED || state == AnalysisState.IN_PROGRESS;
+    }
+}
@@ -0,0 +1,38 @@
+package br.com.betai.domain;
+
+import java.util.List;
+
+/**
+ * Visões nomeadas de leitura da tabela de partidas. Cada visão define apenas os
+ * atributos (caminhos de documento) que precisam ser trazidos do DynamoDB.
+ */
+public enum FixtureView {
+    FULL(),
+    LISTING("fixtureId", "fixture", "odds", "oddsSummary", "predictions.predictions", "iaAnalysis"),
+    ANALYSIS_INPUT("fixtureId", "fixture", "odds", "oddsSummary", "stats", "predictions", "iaAnalysis",
+            "hasColdItem", "analysisState", "analysisVersion", "analysisStateAt"),
+    SETTLEMENT("fixtureId", "fixture", "odds", "oddsSummary", "predictions.predictions.winner",
+            "predictions.predictions.advice", "iaAnalysis");
+
+    private final List<String> attributePaths;
+
+    FixtureView(String... attributePaths) {
+        this.attributePaths = List.of(attributePaths);
+    }
+
+    public List<String> getAttributePaths() {
+        return attributePaths;
+    }
+
+    public boolean isFull() {
+        return attributePaths.isEmpty();
+    }
+
+    /**
+     * Indica se a visão precisa dos atributos frios (stats/predictions completas)
+     * que podem estar no item separado da partida.
+     */
+    public boolean includesColdAttributes() {
+        return isFull() || attributePaths.contains("stats");
+    }
+}
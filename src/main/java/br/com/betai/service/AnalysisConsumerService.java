@@ -1,14 +1,27 @@
 package br.com.betai.service;
 
 import br.com.betai.domain.AnalysisContextDTO;
+import br.com.betai.domain.AnalysisData;
+import br.com.betai.domain.Fixture;
 import br.com.betai.utils.AnalysisUtils;
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import jakarta.annotation.PreDestroy;
 import org.springframework.stereotype.Service;
 import io.awspring.cloud.sqs.annotation.SqsListener;
 
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+
 @Service
 public class AnalysisConsumerService {
 
@@ -16,6 +29,7 @@ public class AnalysisConsumerService {
     private final GeminiAnalysisService geminiAnalysisService;
     private final NotificationService notificationService;
     private final ObjectMapper objectMapper;
+    private final ExecutorService analysisExecutor = Executors.newVirtualThreadPerTaskExecutor();
 
     public AnalysisConsumerService(GeminiAnalysisService geminiAnalysisService,
             NotificationService notificationService) {
@@ -24,39 +38,112 @@ public class AnalysisConsumerService {
         this.objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
     }
 
-    @SqsListener(value = "match-analyser-betai", pollTimeoutSeconds = "20", maxConcurrentMessages = "1")
-    public void consumeAnalysisPayload(String payload) {
+    /**
+     * Até {@code gemini.consumer.concurrency} mensagens em paralelo. O ritmo de
+     * chamadas ao Gemini é controlado pelo {@link GeminiRateLimiter} e as esperas
+     * de retry pelo {@link GeminiRetryPolicy}; nenhuma delas segura thread, então
+     * uma partida aguardando não impede o processamento das demais.
+     */
+    @SqsListener(value = "match-analyser-betai", pollTimeoutSeconds = "20",
+            maxConcurrentMessages = "${gemini.consumer.concurrency:4}")
+    public CompletableFuture<Void> consumeAnalysisPayload(String payload) {
+        // A leitura e a reivindicação no DynamoDB são bloqueantes, por isso começam em thread virtual
+        return CompletableFuture.supplyAsync(() -> processPayload(payload), analysisExecutor)
+                .thenCompose(Function.identity()).exceptionally(e -> {
+                    log.error("Erro ao processar mensagem do SQS: {}", rootMessage(e));
+                    return null;
+                });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        analysisExecutor.close();
+    }
+
+    private CompletableFuture<Void> processPayload(String payload) {
         log.info("SQS: Nova mensagem recebida. Iniciando processamento...");
         try {
+            // Mensagens em lote (gemini.batch.size > 1) chegam como array JSON
+            if (payload.stripLeading().startsWith("[")) {
+                return processBatch(objectMapper.readValue(payload, new TypeReference<List<AnalysisContextDTO>>() {
+                }));
+            }
+
             var context = objectMapper.readValue(payload, AnalysisContextDTO.class);
             var fixture = context.getFixture();
 
             log.info("Processando análise via contexto: {} (ID: {})",
                     fixture.getHomeTeam() + " vs " + fixture.getAwayTeam(), fixture.getId());
 
-            var analysis = geminiAnalysisService.analyzeWithContextDetailed(fixture, context.getStatistics(),
-                    context.getPredictions());
+            if (!geminiAnalysisService.claimForAnalysis(fixture.getId())) {
+                log.info("Partida {} já está em análise ou foi analisada. Mensagem duplicada ignorada.",
+                        fixture.getId());
+                return CompletableFuture.completedFuture(null);
+            }
 
-            if (analysis != null) {
-                // Só envia se o EV for positivo
-                if (analysis.getBetSuggestion().getOddBookmaker() > 0) {
+            return geminiAnalysisService
+                    .analyzeWithContextAsync(fixture, context.getStatistics(), context.getPredictions())
+                    .thenAccept(analysis -> publish(analysis, fixture));
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private CompletableFuture<Void> processBatch(List<AnalysisContextDTO> contexts) {
+        List<AnalysisContextDTO> claimed = contexts.stream()
+                .filter(context -> geminiAnalysisService.claimForAnalysis(context.getFixture().getId())).toList();
+        log.info("Processando lote com {} jogos ({} reivindicados para análise)", contexts.size(), claimed.size());
+        if (claimed.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
 
-                    String telegramMessage = AnalysisUtils.formatAnalysisToTelegram(analysis, fixture);
-                    notificationService.sendToTelegram(telegramMessage, 1, 1);
+        CompletableFuture<Map<Long, AnalysisData>> batch = claimed.size() > 1
+                ? geminiAnalysisService.analyzeBatchAsync(claimed).exceptionally(e -> {
+                    log.error("Falha na análise em lote. Refazendo os {} jogos individualmente: {}", claimed.size(),
+                            rootMessage(e));
+                    return Map.of();
+                })
+                : CompletableFuture.completedFuture(Map.of());
 
-                } else {
-                    log.info("Análise da partida {} descartada por falta de Odd.", fixture.getId());
-                }
+        return batch.thenCompose(analyses -> CompletableFuture.allOf(claimed.stream().map(context -> {
+            Fixture fixture = context.getFixture();
+            AnalysisData analysis = analyses.get(fixture.getId());
+            CompletableFuture<AnalysisData> single;
+            if (analysis != null) {
+                single = CompletableFuture.completedFuture(analysis);
+            } else {
+                log.info("Partida {} sem análise no lote. Analisando individualmente...", fixture.getId());
+                single = geminiAnalysisService.analyzeWithContextAsync(fixture, context.getStatistics(),
+                        context.getPredictions());
             }
+            return single.thenAccept(result -> publish(result, fixture)).exceptionally(e -> {
+                log.error("Erro ao analisar partida {} do lote: {}", fixture.getId(), rootMessage(e));
+                return null;
+            });
+        }).toArray(CompletableFuture[]::new)));
+    }
 
-            log.info("Aguardando 20 segundos antes de processar a próxima mensagem...");
-            Thread.sleep(20000);
+    private static String rootMessage(Throwable e) {
+        Throwable cause = e;
+        while ((cause instanceof CompletionException || cause instanceof ExecutionException)
+                && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause.getMessage();
+    }
 
-        } catch (InterruptedException e) {
-            log.warn("Processamento SQS interrompido: {}", e.getMessage());
-            Thread.currentThread().interrupt();
-        } catch (Exception e) {
-            log.error("Erro ao processar mensagem do SQS: {}", e.getMessage());
+    private void publish(AnalysisData analysis, Fixture fixture) {
+        if (analysis == null) {
+            return;
+        }
+        // Só envia se o EV for positivo
+        if (analysis.getBetSuggestion().getOddBookmaker() > 0) {
+
+            String telegramMessage = AnalysisUtils.formatAnalysisToTelegram(analysis, fixture);
+            notificationService.sendToTelegram(telegramMessage, 1, 1);
+
+        } else {
+            log.info("Análise da partida {} descartada por falta de Odd.", fixture.getId());
         }
     }
 }
@@ -0,0 +1,191 @@
+package br.com.betai.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Buffer write-behind das análises da IA. As gravações são agrupadas por
+ * fixtureId (a mais recente vence) e descarregadas em lote quando o buffer
+ * atinge o tamanho configurado ou no intervalo agendado, sem bloquear a thread
+ * de análise na latência do DynamoDB. Gravações que falham voltam ao buffer e
+ * só são tentadas de novo em um flush posterior, com backoff exponencial;
+ * esgotadas as tentativas, a partida é marcada como FAILED para ser reanalisada.
+ */
+@Service
+public class AnalysisWriteBehindService {
+
+    private static final Logger log = LoggerFactory.getLogger(AnalysisWriteBehindService.class);
+    private static final int MAX_ATTEMPTS = 5;
+    private static final long RETRY_BASE_BACKOFF_MS = 5000;
+    private static final long RETRY_MAX_BACKOFF_MS = 60000;
+
+    private final DynamoDBService dynamoDBService;
+    private final DynamoDBAsyncService dynamoDBAsyncService;
+    private final Map<Long, PendingWrite> pending = new ConcurrentHashMap<>();
+    private final ExecutorService triggerExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final Timer flushTimer;
+    private final Counter failedWrites;
+    private final Counter droppedWrites;
+    private volatile boolean closing;
+
+    @Value("${dynamodb.analysis.write-behind.enabled:true}")
+    private boolean enabled;
+
+    @Value("${dynamodb.analysis.write-behind.batch-size:25}")
+    private int batchSize;
+
+    public AnalysisWriteBehindService(DynamoDBService dynamoDBService, DynamoDBAsyncService dynamoDBAsyncService,
+            MeterRegistry meterRegistry) {
+        this.dynamoDBService = dynamoDBService;
+        this.dynamoDBAsyncService = dynamoDBAsyncService;
+        Gauge.builder("betai.dynamodb.write_behind.depth", pending, Map::size)
+                .description("Análises aguardando gravação no DynamoDB").register(meterRegistry);
+        this.flushTimer = Timer.builder("betai.dynamodb.write_behind.flush")
+                .description("Latência de cada descarga do buffer de análises").register(meterRegistry);
+        this.failedWrites = Counter.builder("betai.dynamodb.write_behind.failures").register(meterRegistry);
+        this.droppedWrites = Counter.builder("betai.dynamodb.write_behind.dropped").register(meterRegistry);
+    }
+
+    public void enqueue(Long fixtureId, Object analysisData) {
+        if (!enabled) {
+            dynamoDBService.updateIAAnalysis(fixtureId, analysisData);
+            return;
+        }
+
+        pending.put(fixtureId, new PendingWrite(analysisData, 0, 0));
+        if (closing) {
+            // O flush de encerramento pode já ter passado; grava aqui mesmo
+            flush(true);
+            return;
+        }
+        if (pending.size() >= batchSize) {
+            try {
+                triggerExecutor.execute(() -> flush(false));
+            } catch (RejectedExecutionException e) {
+                flush(true);
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${dynamodb.analysis.write-behind.flush-interval-ms:5000}")
+    public void scheduledFlush() {
+        flush(false);
+    }
+
+    @PreDestroy
+    public void flushOnClose() {
+        log.info("Encerrando buffer de análises. Descarregando {} gravações pendentes...", pending.size());
+        closing = true;
+        triggerExecutor.shutdown();
+        flush(true);
+    }
+
+    private void flush(boolean waitForLock) {
+        if (waitForLock) {
+            flushLock.lock();
+        } else if (!flushLock.tryLock()) {
+            return;
+        }
+
+        try {
+            while (!pending.isEmpty()) {
+                Map<Long, PendingWrite> batch = drainBatch(System.nanoTime());
+                if (batch.isEmpty()) {
+                    break;
+                }
+                flushTimer.record(() -> writeBatch(batch));
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Retira do buffer até batchSize gravações cujo backoff já venceu. No
+     * encerramento o backoff é ignorado, já que não haverá próximo flush.
+     */
+    private Map<Long, PendingWrite> drainBatch(long now) {
+        Map<Long, PendingWrite> batch = new java.util.HashMap<>();
+        for (Map.Entry<Long, PendingWrite> entry : pending.entrySet()) {
+            if (batch.size() >= batchSize) {
+                break;
+            }
+            if (!closing && entry.getValue().retryAt() - now > 0) {
+                continue;
+            }
+            if (pending.remove(entry.getKey(), entry.getValue())) {
+                batch.put(entry.getKey(), entry.getValue());
+            }
+        }
+        return batch;
+    }
+
+    private void writeBatch(Map<Long, PendingWrite> batch) {
+        // Todas as gravações do lote saem juntas pelo cliente assíncrono
+        List<Map.Entry<Long, CompletableFuture<Void>>> writes = new ArrayList<>();
+        batch.forEach((fixtureId, write) -> writes
+                .add(Map.entry(fixtureId, dynamoDBAsyncService.saveIAAnalysis(fixtureId, write.analysisData()))));
+
+        for (Map.Entry<Long, CompletableFuture<Void>> entry : writes) {
+            try {
+                entry.getValue().join();
+            } catch (CompletionException | CancellationException e) {
+                failedWrites.increment();
+                Throwable cause = e.getCause() != null ? e.getCause() : e;
+                log.error("Erro ao gravar análise da partida {} no DynamoDB: {}", entry.getKey(), cause.getMessage());
+                requeue(entry.getKey(), batch.get(entry.getKey()));
+            }
+        }
+    }
+
+    private void requeue(Long fixtureId, PendingWrite write) {
+        int attempts = write.attempts() + 1;
+        if (attempts >= MAX_ATTEMPTS || closing) {
+            drop(fixtureId, attempts);
+            return;
+        }
+        long backoffMs = Math.min(RETRY_MAX_BACKOFF_MS, RETRY_BASE_BACKOFF_MS * (1L << (attempts - 1)));
+        log.warn("Nova tentativa de gravar a análise da partida {} em {}ms (tentativa {}/{})", fixtureId, backoffMs,
+                attempts + 1, MAX_ATTEMPTS);
+        // Se uma análise mais nova chegou nesse meio tempo, ela prevalece
+        pending.putIfAbsent(fixtureId, new PendingWrite(write.analysisData(), attempts,
+                System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(backoffMs)));
+    }
+
+    private void drop(Long fixtureId, int attempts) {
+        droppedWrites.increment();
+        log.error("Análise da partida {} descartada após {} tentativas de gravação. Marcando como FAILED.",
+                fixtureId, attempts);
+        try {
+            dynamoDBService.markAnalysisFailed(fixtureId);
+        } catch (Exception e) {
+            log.error("Erro ao marcar a análise da partida {} como FAILED: {}", fixtureId, e.getMessage());
+        }
+    }
+
+    // retryAt em System.nanoTime: antes disso o flush deixa a gravação no buffer
+    private record PendingWrite(Object analysisData, int attempts, long retryAt) {
+    }
+}
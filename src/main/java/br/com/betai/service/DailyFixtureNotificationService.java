@@ -1,6 +1,7 @@
 package br.com.betai.service;
 
 import br.com.betai.domain.Fixture;
+import br.com.betai.domain.FixtureView;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.annotation.PostConstruct;
@@ -66,8 +67,7 @@ public class DailyFixtureNotificationService {
     }
 
     private void getAllMatches(LocalDate today) {
-        List<Fixture> fixtures = dynamoDBService.getFixturesByDate(today).stream().map(dynamoDBService::mapToFixture)
-                .filter(java.util.Objects::nonNull).toList();
+        List<Fixture> fixtures = dynamoDBService.getFixturesByDateMapped(today, FixtureView.SETTLEMENT);
 
         if (fixtures.isEmpty()) {
             log.info("Nenhuma partida encontrada para hoje ({}). Pulando notificação.", today);
@@ -0,0 +1,46 @@
+package br.com.betai.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import software.amazon.awssdk.services.dynamodb.DynamoDbAsyncClient;
+import software.amazon.awssdk.services.dynamodb.model.UpdateItemRequest;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Fachada assíncrona do DynamoDB sobre o {@link DynamoDbAsyncClient}. Reaproveita
+ * a montagem das requisições e a atualização do cache do
+ * {@link DynamoDBService}, mas devolve {@link CompletableFuture}, para que o
+ * write-behind dispare as gravações de um lote em paralelo sem ocupar uma
+ * thread por requisição.
+ */
+@Service
+public class DynamoDBAsyncService {
+
+    private static final Logger log = LoggerFactory.getLogger(DynamoDBAsyncService.class);
+
+    private final DynamoDbAsyncClient dynamoDbAsyncClient;
+    private final DynamoDBService dynamoDBService;
+
+    public DynamoDBAsyncService(DynamoDbAsyncClient dynamoDbAsyncClient, DynamoDBService dynamoDBService) {
+        this.dynamoDbAsyncClient = dynamoDbAsyncClient;
+        this.dynamoDBService = dynamoDBService;
+    }
+
+    /**
+     * Versão assíncrona de {@link DynamoDBService#saveIAAnalysis}: a falha vem no
+     * future, para que o chamador decida se deve tentar novamente.
+     */
+    public CompletableFuture<Void> saveIAAnalysis(Long fixtureId, Object analysisData) {
+        log.info("Salvando análise da IA estruturada no DynamoDB para a partida: {}", fixtureId);
+        UpdateItemRequest request;
+        try {
+            request = dynamoDBService.buildUpdateIAAnalysisRequest(fixtureId, analysisData);
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        return dynamoDbAsyncClient.updateItem(request)
+                .thenAccept(response -> dynamoDBService.onAnalysisSaved(fixtureId, request, response));
+    }
+}
@@ -2,21 +2,47 @@ package br.com.betai.service;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import software.amazon.awssdk.auth.credentials.DefaultCredentialsProvider;
-import software.amazon.awssdk.regions.Region;
 import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
 import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.BatchGetItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.BatchGetItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.ConditionalCheckFailedException;
+import software.amazon.awssdk.services.dynamodb.model.DynamoDbException;
 import software.amazon.awssdk.services.dynamodb.model.GetItemRequest;
 import software.amazon.awssdk.services.dynamodb.model.GetItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.KeysAndAttributes;
+import software.amazon.awssdk.services.dynamodb.model.QueryRequest;
+import software.amazon.awssdk.services.dynamodb.model.QueryResponse;
+import software.amazon.awssdk.services.dynamodb.model.ResourceNotFoundException;
+import software.amazon.awssdk.services.dynamodb.model.ReturnConsumedCapacity;
+import software.amazon.awssdk.services.dynamodb.model.ReturnValue;
+import software.amazon.awssdk.services.dynamodb.model.UpdateItemResponse;
 
 import br.com.betai.domain.AnalysisData;
+import br.com.betai.domain.AnalysisState;
+import br.com.betai.domain.AnalysisStatus;
 import br.com.betai.domain.Fixture;
+import br.com.betai.domain.FixtureView;
+import br.com.betai.utils.AnalysisDataAttributeMapper;
 import br.com.betai.utils.AnalysisUtils;
+import br.com.betai.utils.AttributeValueJsonWriter;
+import br.com.betai.utils.CompressedAttributeCodec;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import java.time.Instant;
 import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
 import java.util.Map;
 import java.util.HashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 @Service
 public class DynamoDBService {
@@ -24,95 +50,569 @@ public class DynamoDBService {
     private static final Logger log = LoggerFactory.getLogger(DynamoDBService.class);
     private final DynamoDbClient dynamoDbClient;
     private final ObjectMapper objectMapper;
+    private final FixtureDateCache fixtureDateCache;
     private final String tableName = "BettingFixtures";
 
-    public DynamoDBService() {
-        this.dynamoDbClient = DynamoDbClient.builder().region(Region.US_EAST_1)
-                .credentialsProvider(DefaultCredentialsProvider.create()).build();
+    static final java.util.Set<String> BLOB_ATTRIBUTES = java.util.Set.of("stats", "statistics", "predictions",
+            "odds");
+    static final String COLD_ITEM_FLAG = "hasColdItem";
+    static final String ODDS_SUMMARY = "oddsSummary";
+    static final String ANALYSIS_STATE = "analysisState";
+    static final String ANALYSIS_VERSION = "analysisVersion";
+    static final String ANALYSIS_STATE_AT = "analysisStateAt";
+    private static final int BATCH_GET_MAX_KEYS = 100;
+    private static final int BATCH_GET_MAX_RETRIES = 8;
+    private static final long BATCH_GET_BASE_BACKOFF_MS = 50;
+    private static final long BATCH_GET_MAX_BACKOFF_MS = 5000;
+    private static final java.util.Comparator<Map<String, AttributeValue>> BY_KICKOFF = java.util.Comparator
+            .comparing(DynamoDBService::kickoffOf, java.util.Comparator.nullsLast(java.util.Comparator.naturalOrder()));
+
+    @Value("${dynamodb.fixtures.date-index.enabled:false}")
+    private boolean useDateIndex;
+
+    @Value("${dynamodb.fixtures.date-index.name:gameDay-gameDate-index}")
+    private String dateIndexName;
+
+    @Value("${dynamodb.fixtures.date-index.partition-key:gameDay}")
+    private String dateIndexPartitionKey;
+
+    @Value("${dynamodb.fixtures.scan-segments:1}")
+    private int scanSegments;
+
+    @Value("${dynamodb.fixtures.cold-table:BettingFixturesCold}")
+    private String coldTableName;
+
+    @Value("${dynamodb.fixtures.split.enabled:false}")
+    private boolean splitEnabled;
+
+    @Value("${dynamodb.fixtures.blob-storage.read-compressed:${dynamodb.fixtures.blob-storage.compressed:false}}")
+    private boolean readCompressedBlobs;
+
+    private volatile boolean dateIndexAvailable = true;
+    // Só lê pelo índice depois de confirmar que nenhuma partida está sem gameDay
+    private volatile boolean dateIndexVerified;
+
+    public DynamoDBService(DynamoDbClient dynamoDbClient, FixtureDateCache fixtureDateCache) {
+        this.dynamoDbClient = dynamoDbClient;
         this.objectMapper = new ObjectMapper();
+        this.fixtureDateCache = fixtureDateCache;
     }
 
     public Map<String, AttributeValue> getFixtureData(Long fixtureId) {
         log.info("Consultando DynamoDB para a partida: {}", fixtureId);
 
         try {
-            GetItemRequest request = GetItemRequest.builder().tableName(tableName)
-                    .key(Map.of("fixtureId", AttributeValue.builder().s(String.valueOf(fixtureId)).build())).build();
-
-            GetItemResponse response = dynamoDbClient.getItem(request);
+            GetItemResponse response = dynamoDbClient.getItem(buildGetItemRequest(fixtureId));
 
             if (!response.hasItem()) {
                 log.warn("Partida {} não encontrada no DynamoDB", fixtureId);
                 return null;
             }
 
-            return response.item();
+            return withColdAttributes(response.item());
         } catch (Exception e) {
             log.error("Erro ao consultar DynamoDB para a partida: {}", fixtureId, e);
             throw new RuntimeException("Falha ao consultar DynamoDB: " + e.getMessage(), e);
         }
     }
 
+    public java.util.List<Map<String, AttributeValue>> getFixturesData(Collection<Long> fixtureIds) {
+        return getFixturesData(fixtureIds, FixtureView.FULL);
+    }
+
+    /**
+     * Busca várias partidas via BatchGetItem, em lotes de até 100 chaves, repetindo
+     * as UnprocessedKeys com backoff exponencial. O resultado segue a ordem dos ids
+     * informados; partidas inexistentes são omitidas.
+     */
+    public java.util.List<Map<String, AttributeValue>> getFixturesData(Collection<Long> fixtureIds,
+            FixtureView view) {
+        if (fixtureIds == null || fixtureIds.isEmpty()) {
+            return java.util.List.of();
+        }
+
+        java.util.List<String> ids = fixtureIds.stream().filter(java.util.Objects::nonNull).map(String::valueOf)
+                .distinct().toList();
+        log.info("Consultando DynamoDB em lote para {} partidas", ids.size());
+
+        Map<String, Map<String, AttributeValue>> itemsById = new HashMap<>();
+        try {
+            for (int from = 0; from < ids.size(); from += BATCH_GET_MAX_KEYS) {
+                java.util.List<String> chunk = ids.subList(from, Math.min(from + BATCH_GET_MAX_KEYS, ids.size()));
+                batchGetChunk(tableName, buildKeysAndAttributes(chunk, view), itemsById);
+            }
+
+            if (view.includesColdAttributes()) {
+                mergeColdItems(itemsById);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Consulta em lote ao DynamoDB interrompida", e);
+        } catch (Exception e) {
+            log.error("Erro ao consultar partidas em lote no DynamoDB", e);
+            throw new RuntimeException("Falha ao consultar DynamoDB em lote: " + e.getMessage(), e);
+        }
+
+        return ids.stream().map(itemsById::get).filter(java.util.Objects::nonNull).toList();
+    }
+
+    public java.util.List<Fixture> getFixturesDataMapped(Collection<Long> fixtureIds, FixtureView view) {
+        return getFixturesData(fixtureIds, view).stream().map(this::mapToFixture).filter(java.util.Objects::nonNull)
+                .toList();
+    }
+
+    private void batchGetChunk(String table, KeysAndAttributes keys,
+            Map<String, Map<String, AttributeValue>> itemsById) throws InterruptedException {
+        Map<String, KeysAndAttributes> requestItems = Map.of(table, keys);
+        int attempt = 0;
+
+        while (requestItems != null && !requestItems.isEmpty()) {
+            BatchGetItemResponse response = dynamoDbClient
+                    .batchGetItem(BatchGetItemRequest.builder().requestItems(requestItems)
+                            .returnConsumedCapacity(ReturnConsumedCapacity.TOTAL).build());
+            response.responses().getOrDefault(table, java.util.List.of())
+                    .forEach(item -> itemsById.put(item.get("fixtureId").s(), item));
+
+            requestItems = response.unprocessedKeys();
+            if (requestItems != null && !requestItems.isEmpty()) {
+                if (++attempt > BATCH_GET_MAX_RETRIES) {
+                    throw new RuntimeException("UnprocessedKeys persistentes após " + BATCH_GET_MAX_RETRIES
+                            + " tentativas (" + requestItems.get(table).keys().size() + " chaves)");
+                }
+                long delay = Math.min(BATCH_GET_MAX_BACKOFF_MS, BATCH_GET_BASE_BACKOFF_MS * (1L << attempt));
+                log.warn("BatchGetItem retornou {} chaves não processadas. Nova tentativa em {} ms",
+                        requestItems.get(table).keys().size(), delay);
+                Thread.sleep(delay);
+            }
+        }
+    }
+
+    /**
+     * Completa o item de cabeçalho com os atributos frios (stats/statistics e
+     * predictions completas) quando a partida foi particionada. Itens não
+     * particionados são devolvidos sem nenhuma leitura extra.
+     */
+    public Map<String, AttributeValue> withColdAttributes(Map<String, AttributeValue> item) {
+        if (!hasColdItem(item)) {
+            return item;
+        }
+
+        GetItemResponse response = dynamoDbClient.getItem(GetItemRequest.builder().tableName(coldTableName)
+                .key(Map.of("fixtureId", item.get("fixtureId"))).build());
+        if (!response.hasItem()) {
+            log.warn("Item frio da partida {} não encontrado em {}", item.get("fixtureId").s(), coldTableName);
+            return item;
+        }
+        return mergeColdAttributes(item, response.item());
+    }
+
+    private java.util.List<Map<String, AttributeValue>> withColdItems(java.util.List<Map<String, AttributeValue>> items)
+            throws InterruptedException {
+        Map<String, Map<String, AttributeValue>> itemsById = new java.util.LinkedHashMap<>();
+        items.forEach(item -> itemsById.put(item.get("fixtureId").s(), item));
+        mergeColdItems(itemsById);
+        return new java.util.ArrayList<>(itemsById.values());
+    }
+
+    private void mergeColdItems(Map<String, Map<String, AttributeValue>> itemsById) throws InterruptedException {
+        java.util.List<String> splitIds = itemsById.entrySet().stream().filter(e -> hasColdItem(e.getValue()))
+                .map(Map.Entry::getKey).toList();
+        if (splitIds.isEmpty()) {
+            return;
+        }
+
+        Map<String, Map<String, AttributeValue>> coldById = new HashMap<>();
+        for (int from = 0; from < splitIds.size(); from += BATCH_GET_MAX_KEYS) {
+            java.util.List<String> chunk = splitIds.subList(from,
+                    Math.min(from + BATCH_GET_MAX_KEYS, splitIds.size()));
+            batchGetChunk(coldTableName, buildKeysAndAttributes(chunk, FixtureView.FULL), coldById);
+        }
+        coldById.forEach(
+                (id, cold) -> itemsById.computeIfPresent(id, (key, header) -> mergeColdAttributes(header, cold)));
+    }
+
+    /**
+     * Atributos presentes no cabeçalho prevalecem (a ingestão pode ter regravado o
+     * item depois da partição), exceto predictions na forma reduzida, que é
+     * substituída pela versão completa do item frio. As odds completas ficam só no
+     * item frio; o cabeçalho guarda apenas o resumo em {@code oddsSummary}.
+     */
+    private Map<String, AttributeValue> mergeColdAttributes(Map<String, AttributeValue> header,
+            Map<String, AttributeValue> cold) {
+        Map<String, AttributeValue> merged = new HashMap<>(header);
+        cold.forEach((name, value) -> {
+            if ("fixtureId".equals(name)) {
+                return;
+            }
+            if (!merged.containsKey(name) || ("predictions".equals(name) && isTrimmedPredictions(merged.get(name)))) {
+                merged.put(name, value);
+            }
+        });
+        return merged;
+    }
+
+    /**
+     * A leitura segue o marcador gravado pela partição, e não a configuração de
+     * escrita: itens já particionados continuam sendo completados mesmo com a
+     * partição desligada.
+     */
+    private boolean hasColdItem(Map<String, AttributeValue> item) {
+        if (item == null) {
+            return false;
+        }
+        AttributeValue flag = item.get(COLD_ITEM_FLAG);
+        return flag != null && Boolean.TRUE.equals(flag.bool());
+    }
+
+    private boolean isTrimmedPredictions(AttributeValue predictions) {
+        return predictions != null && predictions.hasM()
+                && predictions.m().keySet().equals(java.util.Set.of("predictions"));
+    }
+
+    boolean isSplitEnabled() {
+        return splitEnabled && coldTableName != null && !coldTableName.isBlank();
+    }
+
+    String getColdTableName() {
+        return coldTableName;
+    }
+
     public String convertAttributeValueToJson(AttributeValue attributeValue) {
         if (attributeValue == null)
             return "{}";
         try {
-            return objectMapper.writeValueAsString(convertToRawMap(attributeValue));
+            return AttributeValueJsonWriter.toJson(attributeValue);
         } catch (Exception e) {
             log.error("Erro ao converter AttributeValue para JSON", e);
             return "{}";
         }
     }
 
-    private Object convertToRawMap(AttributeValue v) {
-        if (v.hasM()) {
-            Map<String, Object> map = new HashMap<>();
-            v.m().forEach((key, val) -> map.put(key, convertToRawMap(val)));
-            return map;
-        } else if (v.hasL()) {
-            return v.l().stream().map(this::convertToRawMap).toList();
-        } else if (v.s() != null) {
-            return v.s();
-        } else if (v.n() != null) {
-            return v.n();
-        } else if (v.bool() != null) {
-            return v.bool();
-        }
-        return null;
+    public java.util.List<Map<String, AttributeValue>> getFixturesByDate(java.time.LocalDate date) {
+        return getFixturesByDate(date, FixtureView.FULL);
     }
 
-    public java.util.List<Map<String, AttributeValue>> getFixturesByDate(java.time.LocalDate date) {
-        String dateStr = date.toString();
-        java.util.List<Map<String, AttributeValue>> allItems = new java.util.ArrayList<>();
-        Map<String, AttributeValue> lastKeyEvaluated = null;
+    public java.util.List<Map<String, AttributeValue>> getFixturesByDate(java.time.LocalDate date, FixtureView view) {
+        return fixtureDateCache.get(date, view, () -> loadFixturesByDate(date, view));
+    }
 
+    private java.util.List<Map<String, AttributeValue>> loadFixturesByDate(java.time.LocalDate date,
+            FixtureView view) {
         try {
-            do {
-                software.amazon.awssdk.services.dynamodb.model.ScanRequest.Builder scanRequestBuilder = software.amazon.awssdk.services.dynamodb.model.ScanRequest
-                        .builder().tableName(tableName).filterExpression("begins_with(gameDate, :date)")
-                        .expressionAttributeValues(Map.of(":date", AttributeValue.builder().s(dateStr).build()));
-
-                if (lastKeyEvaluated != null && !lastKeyEvaluated.isEmpty()) {
-                    scanRequestBuilder.exclusiveStartKey(lastKeyEvaluated);
+            java.util.List<Map<String, AttributeValue>> allItems = null;
+
+            if (isDateIndexReadable()) {
+                try {
+                    allItems = queryFixturesByDate(date, view);
+                } catch (DynamoDbException e) {
+                    if (!isMissingIndex(e)) {
+                        throw e;
+                    }
+                    markDateIndexMissing();
                 }
+            }
 
-                software.amazon.awssdk.services.dynamodb.model.ScanResponse response = dynamoDbClient
-                        .scan(scanRequestBuilder.build());
-                allItems.addAll(response.items());
-                lastKeyEvaluated = response.lastEvaluatedKey();
+            if (allItems == null) {
+                allItems = scanFixturesByDate(date, view);
+            }
 
-            } while (lastKeyEvaluated != null && !lastKeyEvaluated.isEmpty());
+            if (view.isFull()) {
+                allItems = withColdItems(allItems);
+            }
 
-            log.info("Total de jogos encontrados para {}: {}", date, allItems.size());
+            log.info("Total de jogos encontrados para {} (visão {}): {}", date, view, allItems.size());
             return allItems;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Busca de jogos por data no DynamoDB interrompida", e);
         } catch (Exception e) {
             log.error("Erro ao buscar jogos por data no DynamoDB", e);
             throw new RuntimeException("Falha ao buscar jogos no DynamoDB: " + e.getMessage(), e);
         }
     }
 
+    /**
+     * Consulta o GSI de data (partição = dia da partida, ordenação = horário de
+     * início), paginando pelo lastEvaluatedKey. Só enxerga itens com o atributo
+     * {@code gameDay}; por isso a leitura só usa o índice depois da verificação
+     * de {@link FixtureGameDayBackfillService#verifyDateIndex()}.
+     */
+    java.util.List<Map<String, AttributeValue>> queryFixturesByDate(java.time.LocalDate date,
+            FixtureView view) {
+        java.util.List<Map<String, AttributeValue>> allItems = new java.util.ArrayList<>();
+        Map<String, AttributeValue> lastKeyEvaluated = null;
+
+        do {
+            QueryRequest.Builder queryRequestBuilder = dateQueryRequest(date, view);
+
+            if (lastKeyEvaluated != null && !lastKeyEvaluated.isEmpty()) {
+                queryRequestBuilder.exclusiveStartKey(lastKeyEvaluated);
+            }
+
+            QueryResponse response = dynamoDbClient.query(queryRequestBuilder.build());
+            allItems.addAll(response.items());
+            lastKeyEvaluated = response.lastEvaluatedKey();
+
+        } while (lastKeyEvaluated != null && !lastKeyEvaluated.isEmpty());
+
+        return allItems;
+    }
+
+    /**
+     * Scan filtrado por {@code begins_with(gameDate, :date)}. Como a ordem das
+     * páginas do Scan não é determinística, o resultado é ordenado pelo horário
+     * de início, a mesma ordem da chave de ordenação do índice.
+     */
+    java.util.List<Map<String, AttributeValue>> scanFixturesByDate(java.time.LocalDate date,
+            FixtureView view) {
+        java.util.List<Map<String, AttributeValue>> allItems = scanSegments <= 1
+                ? scanSegment(date, view, null, null)
+                : parallelScanFixturesByDate(date, view);
+        allItems.sort(BY_KICKOFF);
+        return allItems;
+    }
+
+    private static String kickoffOf(Map<String, AttributeValue> item) {
+        AttributeValue fixture = item.get("fixture");
+        AttributeValue date = fixture != null && fixture.hasM() ? fixture.m().get("date") : null;
+        return date != null ? date.s() : null;
+    }
+
+    /**
+     * Divide o Scan em segmentos (Segment/TotalSegments), cada um paginado em sua
+     * própria virtual thread, e junta os resultados em uma única lista.
+     */
+    private java.util.List<Map<String, AttributeValue>> parallelScanFixturesByDate(java.time.LocalDate date,
+            FixtureView view) {
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            java.util.List<Future<java.util.List<Map<String, AttributeValue>>>> segments = new java.util.ArrayList<>();
+            for (int segment = 0; segment < scanSegments; segment++) {
+                final int current = segment;
+                segments.add(executor.submit(() -> scanSegment(date, view, current, scanSegments)));
+            }
+
+            java.util.List<Map<String, AttributeValue>> allItems = new java.util.ArrayList<>();
+            for (Future<java.util.List<Map<String, AttributeValue>>> segment : segments) {
+                allItems.addAll(segment.get());
+            }
+            return allItems;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Scan paralelo interrompido", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Falha em um dos segmentos do Scan paralelo: " + e.getCause().getMessage(),
+                    e.getCause());
+        }
+    }
+
+    private java.util.List<Map<String, AttributeValue>> scanSegment(java.time.LocalDate date, FixtureView view,
+            Integer segment, Integer totalSegments) {
+        java.util.List<Map<String, AttributeValue>> allItems = new java.util.ArrayList<>();
+        Map<String, AttributeValue> lastKeyEvaluated = null;
+
+        do {
+            software.amazon.awssdk.services.dynamodb.model.ScanRequest.Builder scanRequestBuilder = dateScanRequest(date,
+                    view);
+
+            if (segment != null) {
+                scanRequestBuilder.segment(segment).totalSegments(totalSegments);
+            }
+
+            if (lastKeyEvaluated != null && !lastKeyEvaluated.isEmpty()) {
+                scanRequestBuilder.exclusiveStartKey(lastKeyEvaluated);
+            }
+
+            software.amazon.awssdk.services.dynamodb.model.ScanResponse response = dynamoDbClient
+                    .scan(scanRequestBuilder.build());
+            allItems.addAll(response.items());
+            lastKeyEvaluated = response.lastEvaluatedKey();
+
+        } while (lastKeyEvaluated != null && !lastKeyEvaluated.isEmpty());
+
+        return allItems;
+    }
+
+    GetItemRequest buildGetItemRequest(Long fixtureId) {
+        return GetItemRequest.builder().tableName(tableName)
+                .key(Map.of("fixtureId", AttributeValue.builder().s(String.valueOf(fixtureId)).build())).build();
+    }
+
+    KeysAndAttributes buildKeysAndAttributes(java.util.List<String> ids, FixtureView view) {
+        KeysAndAttributes.Builder keys = KeysAndAttributes.builder()
+                .keys(ids.stream().map(id -> Map.of("fixtureId", AttributeValue.builder().s(id).build())).toList());
+        if (!view.isFull()) {
+            keys.projectionExpression(projectionExpression(view)).expressionAttributeNames(projectionNames(view));
+        }
+        return keys.build();
+    }
+
+    QueryRequest.Builder dateQueryRequest(java.time.LocalDate date, FixtureView view) {
+        Map<String, String> attributeNames = new HashMap<>(projectionNames(view));
+        attributeNames.put("#day", dateIndexPartitionKey);
+
+        QueryRequest.Builder builder = QueryRequest.builder().tableName(tableName).indexName(dateIndexName)
+                .returnConsumedCapacity(ReturnConsumedCapacity.TOTAL)
+                .keyConditionExpression("#day = :day").expressionAttributeNames(attributeNames)
+                .expressionAttributeValues(Map.of(":day", AttributeValue.builder().s(date.toString()).build()));
+
+        if (!view.isFull()) {
+            builder.projectionExpression(projectionExpression(view));
+        }
+        return builder;
+    }
+
+    software.amazon.awssdk.services.dynamodb.model.ScanRequest.Builder dateScanRequest(java.time.LocalDate date,
+            FixtureView view) {
+        software.amazon.awssdk.services.dynamodb.model.ScanRequest.Builder builder = software.amazon.awssdk.services.dynamodb.model.ScanRequest
+                .builder().tableName(tableName).filterExpression("begins_with(gameDate, :date)")
+                .returnConsumedCapacity(ReturnConsumedCapacity.TOTAL)
+                .expressionAttributeValues(Map.of(":date", AttributeValue.builder().s(date.toString()).build()));
+
+        if (!view.isFull()) {
+            builder.projectionExpression(projectionExpression(view)).expressionAttributeNames(projectionNames(view));
+        }
+        return builder;
+    }
+
+    software.amazon.awssdk.services.dynamodb.model.UpdateItemRequest buildUpdateIAAnalysisRequest(Long fixtureId,
+            Object analysisData) {
+        return software.amazon.awssdk.services.dynamodb.model.UpdateItemRequest.builder().tableName(tableName)
+                .key(Map.of("fixtureId", AttributeValue.builder().s(String.valueOf(fixtureId)).build()))
+                .updateExpression("SET iaAnalysis = :analysis, #state = :done, #stateAt = :stateAt, "
+                        + "#version = if_not_exists(#version, :zero) + :one")
+                .expressionAttributeNames(analysisStateNames())
+                .expressionAttributeValues(Map.of(":analysis", toAnalysisAttributeValue(analysisData), ":done",
+                        AttributeValue.builder().s(AnalysisState.DONE.name()).build(), ":stateAt",
+                        AttributeValue.builder().s(Instant.now().toString()).build(), ":zero",
+                        AttributeValue.builder().n("0").build(), ":one", AttributeValue.builder().n("1").build()))
+                .returnValues(ReturnValue.UPDATED_NEW).returnConsumedCapacity(ReturnConsumedCapacity.TOTAL).build();
+    }
+
+    private Map<String, String> analysisStateNames() {
+        return Map.of("#state", ANALYSIS_STATE, "#version", ANALYSIS_VERSION, "#stateAt", ANALYSIS_STATE_AT);
+    }
+
+    String getTableName() {
+        return tableName;
+    }
+
+    DynamoDbClient getClient() {
+        return dynamoDbClient;
+    }
+
+    boolean isDateIndexReadable() {
+        return isDateIndexEnabled() && dateIndexVerified;
+    }
+
+    boolean isDateIndexEnabled() {
+        return useDateIndex && dateIndexAvailable;
+    }
+
+    void markDateIndexVerified() {
+        if (!dateIndexVerified) {
+            dateIndexVerified = true;
+            log.info("Todas as partidas têm {}. Leitura por data via índice {}.", dateIndexPartitionKey,
+                    dateIndexName);
+        }
+    }
+
+    void markDateIndexMissing() {
+        if (dateIndexAvailable) {
+            dateIndexAvailable = false;
+            log.warn("Índice {} não encontrado na tabela {}. Usando Scan como fallback.", dateIndexName, tableName);
+        }
+    }
+
+    /**
+     * Monta a ProjectionExpression da visão usando placeholders (#atributo) para
+     * cada segmento do caminho, evitando conflito com palavras reservadas.
+     */
+    private String projectionExpression(FixtureView view) {
+        return projectionPaths(view).stream()
+                .map(path -> java.util.Arrays.stream(path.split("\\.")).map(segment -> "#" + segment)
+                        .collect(java.util.stream.Collectors.joining(".")))
+                .collect(java.util.stream.Collectors.joining(", "));
+    }
+
+    private Map<String, String> projectionNames(FixtureView view) {
+        Map<String, String> names = new HashMap<>();
+        projectionPaths(view)
+                .forEach(path -> java.util.Arrays.stream(path.split("\\.")).forEach(s -> names.put("#" + s, s)));
+        return names;
+    }
+
+    /**
+     * Atributos comprimidos são binários e não aceitam caminhos aninhados na
+     * projeção. Quando a tabela pode ter itens comprimidos
+     * ({@code dynamodb.fixtures.blob-storage.read-compressed}), o atributo
+     * inteiro é trazido e expandido na leitura; sem eles, os caminhos aninhados
+     * da visão são mantidos.
+     */
+    private java.util.List<String> projectionPaths(FixtureView view) {
+        if (!readCompressedBlobs) {
+            return view.getAttributePaths();
+        }
+        return view.getAttributePaths().stream().map(path -> {
+            String root = path.split("\\.")[0];
+            return BLOB_ATTRIBUTES.contains(root) ? root : path;
+        }).distinct().toList();
+    }
+
+    boolean isMissingIndex(DynamoDbException e) {
+        if (e instanceof ResourceNotFoundException) {
+            return true;
+        }
+        String message = e.awsErrorDetails() != null ? e.awsErrorDetails().errorMessage() : e.getMessage();
+        return message != null && message.contains("specified index");
+    }
+
+    /**
+     * Leitura preguiçosa dos jogos do dia, sempre em ordem de horário de início.
+     * Pelo índice, cada página é buscada somente quando o consumidor do Stream
+     * chega nela e é liberada depois de consumida, mantendo memória constante em
+     * dias com muitos jogos. Sem o índice, os jogos do dia encontrados pelo Scan
+     * são juntados e ordenados antes (a ordem das páginas do Scan varia a cada
+     * execução). Não popula o cache: quem precisa da lista inteira (agrupar) deve
+     * usar {@link #getFixturesByDate}. Na visão FULL o item frio de cada partida
+     * particionada é lido à medida que ela é consumida.
+     */
+    public Stream<Map<String, AttributeValue>> streamFixturesByDate(java.time.LocalDate date, FixtureView view) {
+        java.util.List<Map<String, AttributeValue>> cached = fixtureDateCache.peek(date, view);
+        if (cached != null) {
+            return cached.stream();
+        }
+        Stream<Map<String, AttributeValue>> items = streamHeadersByDate(date, view);
+        return view.isFull() ? items.map(this::withColdAttributes) : items;
+    }
+
+    private Stream<Map<String, AttributeValue>> streamHeadersByDate(java.time.LocalDate date, FixtureView view) {
+        if (isDateIndexReadable()) {
+            Iterator<Map<String, AttributeValue>> items = dynamoDbClient
+                    .queryPaginator(dateQueryRequest(date, view).build()).items().iterator();
+            try {
+                // Força a primeira página para detectar a ausência do índice antes de entregar o Stream
+                items.hasNext();
+                return StreamSupport.stream(Spliterators.spliteratorUnknownSize(items, Spliterator.ORDERED), false);
+            } catch (DynamoDbException e) {
+                if (!isMissingIndex(e)) {
+                    throw e;
+                }
+                markDateIndexMissing();
+            }
+        }
+
+        // O Scan lê a tabela inteira de qualquer forma; os jogos do dia são juntados e
+        // ordenados por horário para manter a ordem de envio para análise
+        return scanFixturesByDate(date, view).stream();
+    }
+
     public java.util.List<Fixture> getFixturesByDateMapped(java.time.LocalDate date) {
-        return getFixturesByDate(date).stream().map(this::mapToFixture).filter(java.util.Objects::nonNull).toList();
+        return getFixturesByDateMapped(date, FixtureView.FULL);
+    }
+
+    public java.util.List<Fixture> getFixturesByDateMapped(java.time.LocalDate date, FixtureView view) {
+        return getFixturesByDate(date, view).stream().map(this::mapToFixture).filter(java.util.Objects::nonNull)
+                .toList();
     }
 
     public Fixture mapToFixture(Map<String, AttributeValue> data) {
@@ -192,14 +692,18 @@ public class DynamoDBService {
             }
         }
 
-        // Odds (can be a separate column in the main data map)
+        // Odds (can be a separate column in the main data map). Partidas particionadas
+        // sem o item frio só têm o resumo (mercado Match Winner)
         if (data.containsKey("odds")) {
             builder.odds(convertAttributeValueToJson(data.get("odds")));
+        } else if (data.containsKey(ODDS_SUMMARY)) {
+            builder.odds(convertAttributeValueToJson(data.get(ODDS_SUMMARY)));
         }
 
         // Predictions
-        if (data.containsKey("predictions")) {
-            Map<String, AttributeValue> predictionsMap = data.get("predictions").m();
+        AttributeValue predictionsValue = expandBlob(data.get("predictions"));
+        if (predictionsValue != null) {
+            Map<String, AttributeValue> predictionsMap = predictionsValue.m();
             if (predictionsMap.containsKey("predictions")) {
                 Map<String, AttributeValue> innerPredictions = predictionsMap.get("predictions").m();
                 if (innerPredictions.containsKey("winner")) {
@@ -221,8 +725,7 @@ public class DynamoDBService {
         // IA Analysis
         if (data.containsKey("iaAnalysis")) {
             try {
-                String json = convertAttributeValueToJson(data.get("iaAnalysis"));
-                AnalysisData analysis = objectMapper.readValue(json, AnalysisData.class);
+                AnalysisData analysis = AnalysisDataAttributeMapper.fromAttributeValue(data.get("iaAnalysis"));
                 AnalysisUtils.sanitizeAnalysisData(analysis);
                 builder.iaAnalysis(analysis);
             } catch (Exception e) {
@@ -234,20 +737,139 @@ public class DynamoDBService {
     }
 
     public void updateIAAnalysis(Long fixtureId, Object analysisData) {
+        try {
+            saveIAAnalysis(fixtureId, analysisData);
+        } catch (Exception e) {
+            log.error("Erro ao salvar análise da IA no DynamoDB para a partida: {}", fixtureId, e);
+        }
+    }
+
+    /**
+     * Grava a análise da IA propagando a exceção, para que o chamador decida se
+     * deve tentar novamente.
+     */
+    public void saveIAAnalysis(Long fixtureId, Object analysisData) {
         log.info("Salvando análise da IA estruturada no DynamoDB para a partida: {}", fixtureId);
+        software.amazon.awssdk.services.dynamodb.model.UpdateItemRequest request = buildUpdateIAAnalysisRequest(
+                fixtureId, analysisData);
+        UpdateItemResponse response = dynamoDbClient.updateItem(request);
+        onAnalysisSaved(fixtureId, request, response);
+    }
+
+    /**
+     * Reflete no cache por data uma análise já gravada (pelo cliente síncrono ou
+     * pelo {@link DynamoDBAsyncService}).
+     */
+    void onAnalysisSaved(Long fixtureId, software.amazon.awssdk.services.dynamodb.model.UpdateItemRequest request,
+            UpdateItemResponse response) {
+        fixtureDateCache.patch(fixtureId, "iaAnalysis", request.expressionAttributeValues().get(":analysis"));
+        patchAnalysisState(fixtureId, response.attributes());
+    }
+
+    public AnalysisStatus readAnalysisStatus(Map<String, AttributeValue> item) {
+        if (item == null) {
+            return AnalysisStatus.NONE;
+        }
+        AttributeValue state = item.get(ANALYSIS_STATE);
+        AttributeValue version = item.get(ANALYSIS_VERSION);
+        AttributeValue stateAt = item.get(ANALYSIS_STATE_AT);
+        Instant updatedAt = null;
+        if (stateAt != null && stateAt.s() != null) {
+            try {
+                updatedAt = Instant.parse(stateAt.s());
+            } catch (Exception e) {
+                log.debug("analysisStateAt inválido: {}", stateAt.s());
+            }
+        }
+        return new AnalysisStatus(state != null ? AnalysisState.fromValue(state.s()) : null,
+                version != null && version.n() != null ? Long.valueOf(version.n()) : null, updatedAt);
+    }
+
+    /**
+     * Coloca a partida na fila de análise apenas se a versão não mudou desde a
+     * leitura. Retorna false quando outro processo já alterou o estado.
+     */
+    public boolean markAnalysisQueued(Long fixtureId, Long expectedVersion) {
+        if (expectedVersion == null) {
+            return transitionAnalysisState(fixtureId, AnalysisState.QUEUED, "attribute_not_exists(#version)",
+                    Map.of());
+        }
+        return transitionAnalysisState(fixtureId, AnalysisState.QUEUED, "#version = :expectedVersion",
+                Map.of(":expectedVersion", AttributeValue.builder().n(String.valueOf(expectedVersion)).build()));
+    }
+
+    /**
+     * Desfaz {@link #markAnalysisQueued} quando a mensagem não chegou à fila
+     * (QUEUED -> FAILED), para a partida voltar a ser elegível na próxima execução
+     * sem esperar o tempo de expiração. Condicionado à versão gravada pelo
+     * enfileiramento: se outro processo já mexeu na partida, nada é alterado.
+     */
+    public boolean markQueuedAnalysisFailed(Long fixtureId, Long expectedVersion) {
+        long queuedVersion = expectedVersion == null ? 1 : expectedVersion + 1;
+        return transitionAnalysisState(fixtureId, AnalysisState.FAILED,
+                "#state = :expectedState AND #version = :queuedVersion",
+                Map.of(":expectedState", AttributeValue.builder().s(AnalysisState.QUEUED.name()).build(),
+                        ":queuedVersion", AttributeValue.builder().n(String.valueOf(queuedVersion)).build()));
+    }
+
+    /**
+     * Reivindica a análise (QUEUED -> IN_PROGRESS). Mensagens duplicadas na fila
+     * perdem a disputa e não chamam o Gemini de novo. Partidas sem estado (itens
+     * enfileirados antes deste controle) só são aceitas se ainda não têm análise.
+     */
+    public boolean claimAnalysis(Long fixtureId) {
+        return transitionAnalysisState(fixtureId, AnalysisState.IN_PROGRESS,
+                "#state = :expectedState OR (attribute_not_exists(#state) AND attribute_not_exists(iaAnalysis))",
+                Map.of(":expectedState", AttributeValue.builder().s(AnalysisState.QUEUED.name()).build()));
+    }
+
+    public boolean markAnalysisFailed(Long fixtureId) {
+        return transitionAnalysisState(fixtureId, AnalysisState.FAILED, "#state = :expectedState",
+                Map.of(":expectedState", AttributeValue.builder().s(AnalysisState.IN_PROGRESS.name()).build()));
+    }
+
+    private boolean transitionAnalysisState(Long fixtureId, AnalysisState target, String condition,
+            Map<String, AttributeValue> conditionValues) {
+        Map<String, AttributeValue> values = new HashMap<>(conditionValues);
+        values.put(":state", AttributeValue.builder().s(target.name()).build());
+        values.put(":stateAt", AttributeValue.builder().s(Instant.now().toString()).build());
+        values.put(":zero", AttributeValue.builder().n("0").build());
+        values.put(":one", AttributeValue.builder().n("1").build());
+
         try {
-            AttributeValue analysisValue = convertToAttributeValue(analysisData);
+            UpdateItemResponse response = dynamoDbClient.updateItem(
+                    software.amazon.awssdk.services.dynamodb.model.UpdateItemRequest.builder().tableName(tableName)
+                            .key(Map.of("fixtureId", AttributeValue.builder().s(String.valueOf(fixtureId)).build()))
+                            .updateExpression("SET #state = :state, #stateAt = :stateAt, "
+                                    + "#version = if_not_exists(#version, :zero) + :one")
+                            .conditionExpression(condition).expressionAttributeNames(analysisStateNames())
+                            .expressionAttributeValues(values).returnValues(ReturnValue.UPDATED_NEW)
+                            .returnConsumedCapacity(ReturnConsumedCapacity.TOTAL).build());
+            patchAnalysisState(fixtureId, response.attributes());
+            return true;
+        } catch (ConditionalCheckFailedException e) {
+            log.info("Partida {} já foi alterada por outro processo. Transição para {} ignorada.", fixtureId,
+                    target);
+            return false;
+        }
+    }
 
-            software.amazon.awssdk.services.dynamodb.model.UpdateItemRequest request = software.amazon.awssdk.services.dynamodb.model.UpdateItemRequest
-                    .builder().tableName(tableName)
-                    .key(Map.of("fixtureId", AttributeValue.builder().s(String.valueOf(fixtureId)).build()))
-                    .updateExpression("SET iaAnalysis = :analysis")
-                    .expressionAttributeValues(Map.of(":analysis", analysisValue)).build();
+    private void patchAnalysisState(Long fixtureId, Map<String, AttributeValue> updated) {
+        if (updated == null) {
+            return;
+        }
+        for (String attribute : java.util.List.of(ANALYSIS_STATE, ANALYSIS_VERSION, ANALYSIS_STATE_AT)) {
+            if (updated.containsKey(attribute)) {
+                fixtureDateCache.patch(fixtureId, attribute, updated.get(attribute));
+            }
+        }
+    }
 
-            dynamoDbClient.updateItem(request);
-        } catch (Exception e) {
-            log.error("Erro ao salvar análise da IA no DynamoDB para a partida: {}", fixtureId, e);
+    private AttributeValue toAnalysisAttributeValue(Object analysisData) {
+        if (analysisData instanceof AnalysisData analysis) {
+            return AnalysisDataAttributeMapper.toAttributeValue(analysis);
         }
+        return convertToAttributeValue(analysisData);
     }
 
     private AttributeValue convertToAttributeValue(Object data) {
@@ -279,6 +901,18 @@ public class DynamoDBService {
         }
     }
 
+    AttributeValue expandBlob(AttributeValue value) {
+        if (!CompressedAttributeCodec.isCompressed(value)) {
+            return value;
+        }
+        try {
+            return CompressedAttributeCodec.decompressToAttributeValue(value);
+        } catch (Exception e) {
+            log.warn("Erro ao descomprimir atributo binário: {}", e.getMessage());
+            return null;
+        }
+    }
+
     private Integer parseInteger(AttributeValue v) {
         if (v == null || v.nul() != null && v.nul())
             return null;
@@ -0,0 +1,135 @@
+package br.com.betai.service;
+
+import br.com.betai.utils.AttributeValueJsonWriter;
+import br.com.betai.utils.CompressedAttributeCodec;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.ConditionalCheckFailedException;
+import software.amazon.awssdk.services.dynamodb.model.ReturnConsumedCapacity;
+import software.amazon.awssdk.services.dynamodb.model.ScanRequest;
+import software.amazon.awssdk.services.dynamodb.model.UpdateItemRequest;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Migração em background dos atributos grandes (stats, predictions, odds) para o
+ * formato binário comprimido. Cada item é regravado com condição de igualdade
+ * sobre o valor lido, para não sobrescrever uma atualização feita pela ingestão
+ * entre o Scan e o Update.
+ */
+@Service
+public class FixtureBlobMigrationService {
+
+    private static final Logger log = LoggerFactory.getLogger(FixtureBlobMigrationService.class);
+    private static final int MIN_BLOB_CHARS = 1024;
+
+    private final DynamoDBService dynamoDBService;
+    private final AtomicBoolean running = new AtomicBoolean(false);
+
+    @Value("${dynamodb.fixtures.blob-storage.compressed:false}")
+    private boolean compressedBlobs;
+
+    public FixtureBlobMigrationService(DynamoDBService dynamoDBService) {
+        this.dynamoDBService = dynamoDBService;
+    }
+
+    public String startCompression() {
+        if (!compressedBlobs) {
+            return "Formato comprimido desabilitado (dynamodb.fixtures.blob-storage.compressed=false).";
+        }
+        if (!running.compareAndSet(false, true)) {
+            return "Migração de compressão já está em andamento.";
+        }
+
+        Thread.ofVirtual().name("fixture-blob-migration").start(() -> {
+            try {
+                compressAll();
+            } catch (Exception e) {
+                log.error("Migração de compressão interrompida: {}", e.getMessage(), e);
+            } finally {
+                running.set(false);
+            }
+        });
+        return "Migração de compressão iniciada em background.";
+    }
+
+    private void compressAll() {
+        log.info("--- Iniciando migração dos atributos grandes para o formato comprimido ---");
+        Map<String, String> names = new HashMap<>();
+        DynamoDBService.BLOB_ATTRIBUTES.forEach(attribute -> names.put("#" + attribute, attribute));
+
+        ScanRequest request = ScanRequest.builder().tableName(dynamoDBService.getTableName())
+                .projectionExpression("fixtureId, " + String.join(", ", names.keySet()))
+                .expressionAttributeNames(names).limit(50).returnConsumedCapacity(ReturnConsumedCapacity.TOTAL)
+                .build();
+
+        int migrated = 0;
+        int skipped = 0;
+        int failed = 0;
+
+        for (Map<String, AttributeValue> item : dynamoDBService.getClient().scanPaginator(request).items()) {
+            try {
+                if (compressItem(item)) {
+                    migrated++;
+                } else {
+                    skipped++;
+                }
+            } catch (ConditionalCheckFailedException e) {
+                skipped++;
+                log.debug("Partida {} alterada durante a migração. Pulando...", item.get("fixtureId").s());
+            } catch (Exception e) {
+                failed++;
+                log.warn("Erro ao migrar partida {}: {}", item.get("fixtureId").s(), e.getMessage());
+            }
+        }
+
+        log.info("--- Migração concluída: {} migradas, {} inalteradas, {} com erro ---", migrated, skipped, failed);
+    }
+
+    private boolean compressItem(Map<String, AttributeValue> item) throws IOException {
+        List<String> assignments = new ArrayList<>();
+        List<String> conditions = new ArrayList<>();
+        Map<String, String> names = new HashMap<>();
+        Map<String, AttributeValue> values = new HashMap<>();
+
+        int index = 0;
+        for (String attribute : DynamoDBService.BLOB_ATTRIBUTES) {
+            AttributeValue value = item.get(attribute);
+            if (value == null || !(value.hasM() || value.hasL())) {
+                continue;
+            }
+
+            String json = AttributeValueJsonWriter.toJson(value);
+            if (json.length() < MIN_BLOB_CHARS) {
+                continue;
+            }
+
+            names.put("#a" + index, attribute);
+            values.put(":new" + index, CompressedAttributeCodec.compressJson(json));
+            values.put(":old" + index, value);
+            assignments.add("#a" + index + " = :new" + index);
+            conditions.add("#a" + index + " = :old" + index);
+            index++;
+        }
+
+        if (assignments.isEmpty()) {
+            return false;
+        }
+
+        dynamoDBService.getClient()
+                .updateItem(UpdateItemRequest.builder().tableName(dynamoDBService.getTableName())
+                        .key(Map.of("fixtureId", item.get("fixtureId")))
+                        .updateExpression("SET " + String.join(", ", assignments))
+                        .conditionExpression(String.join(" AND ", conditions)).expressionAttributeNames(names)
+                        .expressionAttributeValues(values).build());
+        return true;
+    }
+}
@@ -0,0 +1,162 @@
+package br.com.betai.service;
+
+import br.com.betai.domain.FixtureView;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Cache em memória dos itens de partidas por dia (e visão de projeção). O TTL
+ * depende do dia: curto para hoje, que muda a cada atualização de placar, e
+ * longo para dias passados, que praticamente não mudam mais.
+ */
+@Component
+public final class FixtureDateCache {
+
+    private static final Logger log = LoggerFactory.getLogger(FixtureDateCache.class);
+
+    private final Map<CacheKey, CacheEntry> entries;
+    private final Counter hits;
+    private final Counter misses;
+
+    @Value("${dynamodb.fixtures.cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${dynamodb.fixtures.cache.ttl-today:2m}")
+    private Duration ttlToday;
+
+    @Value("${dynamodb.fixtures.cache.ttl-past:1h}")
+    private Duration ttlPast;
+
+    @Value("${dynamodb.fixtures.cache.ttl-future:10m}")
+    private Duration ttlFuture;
+
+    public FixtureDateCache(@Value("${dynamodb.fixtures.cache.max-entries:32}") int maxEntries,
+            MeterRegistry meterRegistry) {
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<CacheKey, CacheEntry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+        this.hits = Counter.builder("betai.fixtures.cache.requests").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("betai.fixtures.cache.requests").tag("result", "miss").register(meterRegistry);
+        Gauge.builder("betai.fixtures.cache.size", this, FixtureDateCache::size).register(meterRegistry);
+        Gauge.builder("betai.fixtures.cache.hit.ratio", this, FixtureDateCache::hitRatio).register(meterRegistry);
+    }
+
+    public List<Map<String, AttributeValue>> get(LocalDate date, FixtureView view,
+            Supplier<List<Map<String, AttributeValue>>> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+
+        CacheKey key = new CacheKey(date, view);
+        long now = System.nanoTime();
+        synchronized (entries) {
+            CacheEntry entry = entries.get(key);
+            if (entry != null && entry.expiresAt() - now > 0) {
+                hits.increment();
+                return entry.items();
+            }
+        }
+
+        misses.increment();
+        List<Map<String, AttributeValue>> items = List.copyOf(loader.get());
+        synchronized (entries) {
+            entries.put(key, new CacheEntry(items, now + ttlFor(date).toNanos()));
+        }
+        return items;
+    }
+
+    /**
+     * Retorna a entrada em cache se ainda válida, sem carregar nada em caso de
+     * ausência.
+     */
+    public List<Map<String, AttributeValue>> peek(LocalDate date, FixtureView view) {
+        if (!enabled) {
+            return null;
+        }
+        synchronized (entries) {
+            CacheEntry entry = entries.get(new CacheKey(date, view));
+            if (entry != null && entry.expiresAt() - System.nanoTime() > 0) {
+                hits.increment();
+                return entry.items();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Atualiza um atributo da partida nas entradas em cache que a contêm, evitando
+     * invalidar o dia inteiro a cada análise gravada.
+     */
+    public void patch(Long fixtureId, String attributeName, AttributeValue value) {
+        String id = String.valueOf(fixtureId);
+        synchronized (entries) {
+            entries.replaceAll((key, entry) -> {
+                List<Map<String, AttributeValue>> patched = null;
+                for (int i = 0; i < entry.items().size(); i++) {
+                    Map<String, AttributeValue> item = entry.items().get(i);
+                    AttributeValue itemId = item.get("fixtureId");
+                    if (itemId != null && id.equals(itemId.s())) {
+                        if (patched == null) {
+                            patched = new ArrayList<>(entry.items());
+                        }
+                        Map<String, AttributeValue> copy = new HashMap<>(item);
+                        copy.put(attributeName, value);
+                        patched.set(i, Collections.unmodifiableMap(copy));
+                    }
+                }
+                return patched == null ? entry : new CacheEntry(List.copyOf(patched), entry.expiresAt());
+            });
+        }
+    }
+
+    public void invalidate(LocalDate date) {
+        synchronized (entries) {
+            entries.keySet().removeIf(key -> key.date().equals(date));
+        }
+        log.info("Cache de partidas invalidado para {}", date);
+    }
+
+    private Duration ttlFor(LocalDate date) {
+        LocalDate today = LocalDate.now();
+        if (date.isBefore(today)) {
+            return ttlPast;
+        }
+        return date.isEqual(today) ? ttlToday : ttlFuture;
+    }
+
+    private int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    private double hitRatio() {
+        double total = hits.count() + misses.count();
+        return total == 0 ? 0.0 : hits.count() / total;
+    }
+
+    private record CacheKey(LocalDate date, FixtureView view) {
+    }
+
+    private record CacheEntry(List<Map<String, AttributeValue>> items, long expiresAt) {
+    }
+}
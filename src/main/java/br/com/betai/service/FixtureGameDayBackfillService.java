@@ -0,0 +1,142 @@
+package br.com.betai.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.ConditionalCheckFailedException;
+import software.amazon.awssdk.services.dynamodb.model.ReturnConsumedCapacity;
+import software.amazon.awssdk.services.dynamodb.model.ScanRequest;
+import software.amazon.awssdk.services.dynamodb.model.ScanResponse;
+import software.amazon.awssdk.services.dynamodb.model.Select;
+import software.amazon.awssdk.services.dynamodb.model.UpdateItemRequest;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Preenche o atributo {@code gameDay} (partição do GSI de data) a partir do
+ * {@code gameDate} nos itens que ainda não o têm, e verifica se o índice está
+ * completo antes de a leitura por data passar a usá-lo. A ingestão (fora deste
+ * serviço) precisa gravar {@code gameDay} junto com {@code gameDate}: um dia
+ * com parte das partidas sem o atributo voltaria incompleto da Query.
+ */
+@Service
+public class FixtureGameDayBackfillService {
+
+    private static final Logger log = LoggerFactory.getLogger(FixtureGameDayBackfillService.class);
+    private static final int DAY_LENGTH = "yyyy-MM-dd".length();
+
+    private final DynamoDBService dynamoDBService;
+    private final AtomicBoolean running = new AtomicBoolean(false);
+
+    @Value("${dynamodb.fixtures.date-index.partition-key:gameDay}")
+    private String dateIndexPartitionKey;
+
+    public FixtureGameDayBackfillService(DynamoDBService dynamoDBService) {
+        this.dynamoDBService = dynamoDBService;
+    }
+
+    public String startBackfill() {
+        if (!running.compareAndSet(false, true)) {
+            return "Backfill de gameDay já está em andamento.";
+        }
+
+        Thread.ofVirtual().name("fixture-game-day-backfill").start(() -> {
+            try {
+                backfillAll();
+            } catch (Exception e) {
+                log.error("Backfill de gameDay interrompido: {}", e.getMessage(), e);
+            } finally {
+                running.set(false);
+            }
+        });
+        return "Backfill de gameDay iniciado em background.";
+    }
+
+    /**
+     * Libera a leitura pelo índice somente se nenhuma partida com {@code gameDate}
+     * estiver sem {@code gameDay}. Roda na subida (um Scan de contagem) e ao fim
+     * de cada backfill; enquanto não passar, a leitura por data segue com Scan.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void verifyDateIndex() {
+        if (!dynamoDBService.isDateIndexEnabled()) {
+            return;
+        }
+        try {
+            long missing = dynamoDBService.getClient().scanPaginator(missingGameDayScan().select(Select.COUNT).build())
+                    .stream().mapToLong(ScanResponse::count).sum();
+            if (missing == 0) {
+                dynamoDBService.markDateIndexVerified();
+            } else {
+                log.error("{} partidas sem {}. Leitura por data segue com Scan até rodar "
+                        + "/api/maintenance/backfill-game-day", missing, dateIndexPartitionKey);
+            }
+        } catch (Exception e) {
+            log.error("Não foi possível verificar o índice de data. Leitura por data segue com Scan: {}",
+                    e.getMessage());
+        }
+    }
+
+    int backfillAll() {
+        log.info("--- Iniciando backfill de {} a partir de gameDate ---", dateIndexPartitionKey);
+        ScanRequest request = missingGameDayScan().projectionExpression("fixtureId, gameDate").limit(100).build();
+
+        int updated = 0;
+        int skipped = 0;
+        int failed = 0;
+
+        for (Map<String, AttributeValue> item : dynamoDBService.getClient().scanPaginator(request).items()) {
+            try {
+                if (backfillItem(item)) {
+                    updated++;
+                } else {
+                    skipped++;
+                }
+            } catch (ConditionalCheckFailedException e) {
+                skipped++;
+                log.debug("Partida {} alterada durante o backfill. Pulando...", item.get("fixtureId").s());
+            } catch (Exception e) {
+                failed++;
+                log.warn("Erro no backfill da partida {}: {}", item.get("fixtureId").s(), e.getMessage());
+            }
+        }
+
+        log.info("--- Backfill concluído: {} atualizadas, {} ignoradas, {} com erro ---", updated, skipped, failed);
+        if (failed == 0) {
+            verifyDateIndex();
+        }
+        return updated;
+    }
+
+    private ScanRequest.Builder missingGameDayScan() {
+        return ScanRequest.builder().tableName(dynamoDBService.getTableName())
+                .filterExpression("attribute_exists(gameDate) AND attribute_not_exists(#day)")
+                .expressionAttributeNames(dayAttributeName()).returnConsumedCapacity(ReturnConsumedCapacity.TOTAL);
+    }
+
+    private boolean backfillItem(Map<String, AttributeValue> item) {
+        AttributeValue gameDate = item.get("gameDate");
+        if (gameDate == null || gameDate.s() == null || gameDate.s().length() < DAY_LENGTH) {
+            return false;
+        }
+
+        // Mesmo critério do Scan por data (begins_with(gameDate, :date))
+        String gameDay = gameDate.s().substring(0, DAY_LENGTH);
+        dynamoDBService.getClient().updateItem(UpdateItemRequest.builder().tableName(dynamoDBService.getTableName())
+                .key(Map.of("fixtureId", item.get("fixtureId"))).updateExpression("SET #day = :day")
+                .conditionExpression("gameDate = :gameDate").expressionAttributeNames(dayAttributeName())
+                .expressionAttributeValues(
+                        Map.of(":day", AttributeValue.builder().s(gameDay).build(), ":gameDate", gameDate))
+                .build());
+        return true;
+    }
+
+    private Map<String, String> dayAttributeName() {
+        return Map.of("#day", dateIndexPartitionKey);
+    }
+}
@@ -0,0 +1,226 @@
+package br.com.betai.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.ConditionalCheckFailedException;
+import software.amazon.awssdk.services.dynamodb.model.ReturnConsumedCapacity;
+import software.amazon.awssdk.services.dynamodb.model.ScanRequest;
+import software.amazon.awssdk.services.dynamodb.model.UpdateItemRequest;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Particiona verticalmente as partidas: stats/statistics, as predictions e as
+ * odds completas vão para o item frio (tabela configurada em
+ * {@code dynamodb.fixtures.cold-table}) e o item principal fica apenas com o
+ * cabeçalho (fixture, resumo das odds e das predictions e iaAnalysis).
+ */
+@Service
+public class FixtureSplitMigrationService {
+
+    private static final Logger log = LoggerFactory.getLogger(FixtureSplitMigrationService.class);
+    private static final Set<String> COLD_ATTRIBUTES = Set.of("stats", "statistics", "predictions", "odds");
+
+    private final DynamoDBService dynamoDBService;
+    private final AtomicBoolean running = new AtomicBoolean(false);
+
+    public FixtureSplitMigrationService(DynamoDBService dynamoDBService) {
+        this.dynamoDBService = dynamoDBService;
+    }
+
+    public String startSplit() {
+        if (!dynamoDBService.isSplitEnabled()) {
+            return "Partição desabilitada (dynamodb.fixtures.split.enabled=false).";
+        }
+        if (!running.compareAndSet(false, true)) {
+            return "Partição de partidas já está em andamento.";
+        }
+
+        Thread.ofVirtual().name("fixture-split-migration").start(() -> {
+            try {
+                splitAll();
+            } catch (Exception e) {
+                log.error("Partição de partidas interrompida: {}", e.getMessage(), e);
+            } finally {
+                running.set(false);
+            }
+        });
+        return "Partição de partidas iniciada em background.";
+    }
+
+    private void splitAll() {
+        log.info("--- Iniciando partição das partidas em cabeçalho + item frio ({}) ---",
+                dynamoDBService.getColdTableName());
+
+        // Inclui itens particionados antes de as odds irem para o item frio
+        ScanRequest request = ScanRequest.builder().tableName(dynamoDBService.getTableName())
+                .filterExpression("attribute_exists(stats) OR attribute_exists(statistics) "
+                        + "OR (attribute_exists(odds) AND attribute_not_exists(#oddsSummary))")
+                .expressionAttributeNames(Map.of("#oddsSummary", DynamoDBService.ODDS_SUMMARY)).limit(25)
+                .returnConsumedCapacity(ReturnConsumedCapacity.TOTAL).build();
+
+        int split = 0;
+        int skipped = 0;
+        int failed = 0;
+
+        for (Map<String, AttributeValue> item : dynamoDBService.getClient().scanPaginator(request).items()) {
+            try {
+                if (splitItem(item)) {
+                    split++;
+                } else {
+                    skipped++;
+                }
+            } catch (ConditionalCheckFailedException e) {
+                skipped++;
+                log.debug("Partida {} alterada durante a partição. Pulando...", item.get("fixtureId").s());
+            } catch (Exception e) {
+                failed++;
+                log.warn("Erro ao particionar partida {}: {}", item.get("fixtureId").s(), e.getMessage());
+            }
+        }
+
+        log.info("--- Partição concluída: {} particionadas, {} ignoradas, {} com erro ---", split, skipped, failed);
+    }
+
+    private boolean splitItem(Map<String, AttributeValue> item) {
+        // Resumos gravados no cabeçalho no lugar dos atributos movidos
+        Map<String, AttributeValue> summaries = new HashMap<>();
+        Map<String, AttributeValue> moved = new HashMap<>();
+        for (String name : COLD_ATTRIBUTES) {
+            AttributeValue value = item.get(name);
+            if (value == null) {
+                continue;
+            }
+            if ("odds".equals(name)) {
+                AttributeValue summary = oddsSummary(value);
+                if (summary == null) {
+                    // Sem o mercado principal para resumir, as odds ficam no cabeçalho
+                    continue;
+                }
+                summaries.put(DynamoDBService.ODDS_SUMMARY, summary);
+            } else if ("predictions".equals(name)) {
+                AttributeValue summary = predictionsSummary(value);
+                if (value.equals(summary)) {
+                    // Já é o resumo de uma partição anterior; a versão completa está no item frio
+                    continue;
+                }
+                if (summary != null) {
+                    summaries.put(name, summary);
+                }
+            }
+            moved.put(name, value);
+        }
+        if (moved.isEmpty()) {
+            return false;
+        }
+
+        // O item frio é gravado primeiro: se o cabeçalho falhar, a próxima execução
+        // apenas o regrava. UpdateItem preserva o que uma partição anterior já moveu
+        writeColdItem(item.get("fixtureId"), moved);
+
+        List<String> sets = new ArrayList<>();
+        List<String> removes = new ArrayList<>();
+        List<String> conditions = new ArrayList<>();
+        Map<String, String> names = new HashMap<>();
+        Map<String, AttributeValue> values = new HashMap<>();
+
+        names.put("#flag", DynamoDBService.COLD_ITEM_FLAG);
+        values.put(":true", AttributeValue.builder().bool(true).build());
+        sets.add("#flag = :true");
+
+        moved.forEach((name, value) -> {
+            String alias = "#" + name;
+            names.put(alias, name);
+            values.put(":old_" + name, value);
+            conditions.add(alias + " = :old_" + name);
+            if (!summaries.containsKey(name)) {
+                removes.add(alias);
+            }
+        });
+        summaries.forEach((name, summary) -> {
+            names.put("#" + name, name);
+            values.put(":summary_" + name, summary);
+            sets.add("#" + name + " = :summary_" + name);
+        });
+
+        String updateExpression = "SET " + String.join(", ", sets)
+                + (removes.isEmpty() ? "" : " REMOVE " + String.join(", ", removes));
+
+        dynamoDBService.getClient()
+                .updateItem(UpdateItemRequest.builder().tableName(dynamoDBService.getTableName())
+                        .key(Map.of("fixtureId", item.get("fixtureId"))).updateExpression(updateExpression)
+                        .conditionExpression(String.join(" AND ", conditions)).expressionAttributeNames(names)
+                        .expressionAttributeValues(values).build());
+        return true;
+    }
+
+    private void writeColdItem(AttributeValue fixtureId, Map<String, AttributeValue> moved) {
+        List<String> sets = new ArrayList<>();
+        Map<String, String> names = new HashMap<>();
+        Map<String, AttributeValue> values = new HashMap<>();
+        moved.forEach((name, value) -> {
+            names.put("#" + name, name);
+            values.put(":" + name, value);
+            sets.add("#" + name + " = :" + name);
+        });
+
+        dynamoDBService.getClient()
+                .updateItem(UpdateItemRequest.builder().tableName(dynamoDBService.getColdTableName())
+                        .key(Map.of("fixtureId", fixtureId)).updateExpression("SET " + String.join(", ", sets))
+                        .expressionAttributeNames(names).expressionAttributeValues(values).build());
+    }
+
+    /**
+     * Resumo das odds para o cabeçalho: apenas o mercado Match Winner (id 1) da
+     * primeira casa de apostas, no formato que a notificação diária já lê.
+     */
+    private AttributeValue oddsSummary(AttributeValue odds) {
+        AttributeValue expanded = dynamoDBService.expandBlob(odds);
+        if (expanded == null || !expanded.hasM()) {
+            return null;
+        }
+        AttributeValue bookmaker = expanded.m().get("bookmaker");
+        AttributeValue bookmakers = expanded.m().get("bookmakers");
+        if (bookmaker == null && bookmakers != null && bookmakers.hasL() && !bookmakers.l().isEmpty()) {
+            bookmaker = bookmakers.l().get(0);
+        }
+        if (bookmaker == null || !bookmaker.hasM() || !bookmaker.m().containsKey("bets")) {
+            return null;
+        }
+
+        for (AttributeValue bet : bookmaker.m().get("bets").l()) {
+            if (bet.hasM() && isMatchWinner(bet.m())) {
+                Map<String, AttributeValue> summary = new HashMap<>(bookmaker.m());
+                summary.put("bets", AttributeValue.builder().l(bet).build());
+                return AttributeValue.builder()
+                        .m(Map.of("bookmaker", AttributeValue.builder().m(summary).build())).build();
+            }
+        }
+        return null;
+    }
+
+    private boolean isMatchWinner(Map<String, AttributeValue> bet) {
+        AttributeValue id = bet.get("id");
+        AttributeValue name = bet.get("name");
+        return id != null && "1".equals(id.n()) || name != null && "Match Winner".equalsIgnoreCase(name.s());
+    }
+
+    /**
+     * Mantém no cabeçalho apenas {@code predictions.predictions} (winner/advice),
+     * que é o que as listagens e a apuração leem.
+     */
+    private AttributeValue predictionsSummary(AttributeValue predictions) {
+        AttributeValue expanded = dynamoDBService.expandBlob(predictions);
+        if (expanded == null || !expanded.hasM() || !expanded.m().containsKey("predictions")) {
+            return null;
+        }
+        return AttributeValue.builder().m(Map.of("predictions", expanded.m().get("predictions"))).build();
+    }
+}
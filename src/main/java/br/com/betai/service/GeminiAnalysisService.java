@@ -1,41 +1,77 @@
 package br.com.betai.service;
 
+import br.com.betai.domain.AnalysisContextDTO;
 import br.com.betai.domain.AnalysisData;
 import br.com.betai.domain.Fixture;
 import br.com.betai.utils.AnalysisUtils;
+import br.com.betai.utils.GeminiResponseSchema;
+import br.com.betai.utils.IncrementalJsonTreeBuilder;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.HttpEntity;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.MediaType;
-import org.springframework.retry.annotation.Backoff;
-import org.springframework.retry.annotation.Retryable;
-import org.springframework.retry.annotation.Recover;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
 
+import java.time.Duration;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 @Service
 public class GeminiAnalysisService {
 
     private static final Logger log = LoggerFactory.getLogger(GeminiAnalysisService.class);
-    private static final String GEMINI_API_URL = "https://generativelanguage.googleapis.com/v1beta/models/gemini-2.0-flash:generateContent";
+    private static final String GEMINI_MODEL = "gemini-2.0-flash";
+    // Reserva para a resposta (JSON da análise + grounding) na estimativa de tokens
+    private static final int OUTPUT_TOKEN_ESTIMATE = 2048;
+    // Campos recalculados em completeAnalysis/finalizeAnalysis; o modelo não precisa gerá-los
+    private static final Set<String> BACKEND_FIELDS = Set.of("odd_fair_poisson", "expected_value", "status_ev",
+            "winner", "win_or_draw");
 
-    private final RestTemplate restTemplate;
+    private final GeminiClient geminiClient;
+    private final AnalysisWriteBehindService analysisWriteBehindService;
     private final DynamoDBService dynamoDBService;
+    private final GeminiResponseCache geminiResponseCache;
+    private final GeminiRateLimiter geminiRateLimiter;
+    private final GeminiRetryPolicy geminiRetryPolicy;
+    private final PromptTemplateService promptTemplateService;
     private final ObjectMapper objectMapper;
+    // Espera por quota fora das threads do HttpClient
+    private final ExecutorService limiterExecutor = Executors.newVirtualThreadPerTaskExecutor();
 
-    @Value("${gemini.api.key}")
-    private String apiKey;
+    private final Map<String, Object> responseSchema;
+    private final Counter structuredParseFailures;
 
-    public GeminiAnalysisService(RestTemplate restTemplate, DynamoDBService dynamoDBService) {
-        this.restTemplate = restTemplate;
+    @Value("${gemini.streaming.enabled:false}")
+    private boolean streaming;
+
+    @Value("${gemini.structured-output.enabled:false}")
+    private boolean structuredOutput;
+
+    public GeminiAnalysisService(GeminiClient geminiClient, AnalysisWriteBehindService analysisWriteBehindService,
+            DynamoDBService dynamoDBService, GeminiResponseCache geminiResponseCache,
+            GeminiRateLimiter geminiRateLimiter, GeminiRetryPolicy geminiRetryPolicy,
+            PromptTemplateService promptTemplateService, MeterRegistry meterRegistry) {
+        this.geminiClient = geminiClient;
+        this.analysisWriteBehindService = analysisWriteBehindService;
         this.dynamoDBService = dynamoDBService;
+        this.geminiResponseCache = geminiResponseCache;
+        this.geminiRateLimiter = geminiRateLimiter;
+        this.geminiRetryPolicy = geminiRetryPolicy;
+        this.promptTemplateService = promptTemplateService;
         this.objectMapper = new ObjectMapper();
+        this.responseSchema = GeminiResponseSchema.forType(objectMapper, AnalysisData.class, BACKEND_FIELDS);
+        this.structuredParseFailures = Counter.builder("betai.gemini.structured_output.parse_failures")
+                .description("Respostas com responseSchema que não puderam ser lidas").register(meterRegistry);
     }
 
     public String analyzeWithContext(Fixture fixture, String statistics, String predictions) {
@@ -47,93 +83,295 @@ public class GeminiAnalysisService {
 
             log.info("Análise com valor encontrada para partida {}. Retornando resultado...", fixture.getId());
             return AnalysisUtils.formatAnalysisToText(analysis, fixture);
+        } catch (GeminiIncompleteStreamException e) {
+            log.warn("Devolvendo análise parcial para partida {}: {}", fixture.getId(), e.getMessage());
+            return "⚠️ Resposta do Gemini incompleta. Análise parcial, não salva:\n\n"
+                    + AnalysisUtils.formatAnalysisToText(e.getPartialAnalysis(), fixture);
         } catch (Exception e) {
             log.error("Falha final na análise após retries para partida {}: {}", fixture.getId(), e.getMessage());
             return "⚠️ Erro crítico na análise do Gemini após múltiplas tentativas.";
         }
     }
 
-    @Retryable(retryFor = { Exception.class }, maxAttempts = 3, backoff = @Backoff(delay = 20000))
+    /**
+     * Reivindica a partida para análise (QUEUED -> IN_PROGRESS). Retorna false se
+     * outra mensagem já está analisando ou já analisou a partida.
+     */
+    public boolean claimForAnalysis(Long fixtureId) {
+        return dynamoDBService.claimAnalysis(fixtureId);
+    }
+
     public AnalysisData analyzeWithContextDetailed(Fixture fixture, String statistics, String predictions)
             throws Exception {
-        if ("YOUR_GEMINI_API_KEY".equals(apiKey) || apiKey == null || apiKey.isEmpty()) {
+        try {
+            return analyzeWithContextAsync(fixture, statistics, predictions).get();
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof Exception cause ? cause : e;
+        }
+    }
+
+    /**
+     * Versão assíncrona da análise: a requisição ao Gemini não ocupa thread
+     * enquanto aguarda a resposta, permitindo várias análises em paralelo. Os
+     * retries seguem o {@link GeminiRetryPolicy}. Qualquer falha definitiva
+     * (retries esgotados, resposta em cache inválida, erro ao montar o prompt)
+     * deixa a partida como FAILED.
+     */
+    public CompletableFuture<AnalysisData> analyzeWithContextAsync(Fixture fixture, String statistics,
+            String predictions) {
+        if (!geminiClient.isConfigured()) {
             log.warn("API Key do Gemini não configurada");
-            return null;
+            dynamoDBService.markAnalysisFailed(fixture.getId());
+            return CompletableFuture.completedFuture(null);
+        }
+
+        CompletableFuture<AnalysisData> analysis;
+        try {
+            analysis = startAnalysis(fixture, statistics, predictions);
+        } catch (Exception e) {
+            analysis = CompletableFuture.failedFuture(e);
+        }
+        return analysis.whenCompleteAsync((result, error) -> {
+            if (error != null) {
+                dynamoDBService.markAnalysisFailed(fixture.getId());
+            }
+        }, limiterExecutor);
+    }
+
+    private CompletableFuture<AnalysisData> startAnalysis(Fixture fixture, String statistics, String predictions) {
+        String prompt = promptTemplateService.detailedAnalysisPrompt(fixture, statistics, predictions);
+        Map<String, Object> requestBody = buildAnalysisRequest(prompt);
+
+        String cacheKey = geminiResponseCache.keyFor(GEMINI_MODEL, requestBody);
+        Optional<String> cached = geminiResponseCache.get(cacheKey);
+        if (cached.isPresent()) {
+            log.info("Resposta do Gemini encontrada no cache para partida {}. Sem chamada à API.", fixture.getId());
+            return CompletableFuture.supplyAsync(() -> finishAnalysis(fixture, cached.get()), limiterExecutor)
+                    .whenComplete((analysis, error) -> {
+                        if (error != null) {
+                            geminiResponseCache.invalidate(cacheKey);
+                        }
+                    });
+        }
+
+        int estimatedTokens = prompt.length() / 4 + OUTPUT_TOKEN_ESTIMATE;
+        return geminiRetryPolicy.execute("Análise da partida " + fixture.getId(),
+                () -> acquireQuota(estimatedTokens)
+                        .thenCompose(v -> callGemini(fixture, requestBody, cacheKey, estimatedTokens)));
+    }
+
+    // A cada tentativa a quota é consumida de novo, inclusive após um 429
+    private CompletableFuture<Void> acquireQuota(int estimatedTokens) {
+        return CompletableFuture.runAsync(() -> {
+            try {
+                geminiRateLimiter.acquire(estimatedTokens);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CompletionException(e);
+            }
+        }, limiterExecutor);
+    }
+
+    /**
+     * No modo de saída estruturada o Gemini 2.0 não aceita ferramentas junto com
+     * {@code responseSchema}, então a busca do Google sai da requisição e o modelo
+     * trabalha só com os dados do prompt.
+     */
+    private Map<String, Object> buildAnalysisRequest(String prompt) {
+        List<Map<String, Object>> contents = List.of(Map.of("parts", List.of(Map.of("text", prompt))));
+        if (structuredOutput) {
+            return Map.of("contents", contents, "generationConfig", Map.of("temperature", 0.1,
+                    "response_mime_type", "application/json", "response_schema", responseSchema));
         }
+        return Map.of("contents", contents, "tools", List.of(Map.of("google_search", Map.of())), "generationConfig",
+                Map.of("temperature", 0.1));
+    }
 
-        String prompt = AnalysisUtils.buildDetailedAnalysisPrompt(fixture, statistics, predictions);
-        String url = GEMINI_API_URL + "?key=" + apiKey;
+    private CompletableFuture<AnalysisData> callGemini(Fixture fixture, Map<String, Object> requestBody,
+            String cacheKey, int estimatedTokens) {
+        if (streaming) {
+            return callGeminiStreaming(fixture, requestBody, cacheKey, estimatedTokens);
+        }
 
         log.info("Iniciando tentativa de análise Gemini (v2.0 Flash) para partida {}...", fixture.getId());
+        long start = System.nanoTime();
+
+        return generateContent(requestBody).thenApply(response -> {
+            if (response.usageMetadata() != null && response.usageMetadata().totalTokenCount() != null) {
+                geminiRateLimiter.recordUsage(estimatedTokens, response.usageMetadata().totalTokenCount());
+            }
+            if (!response.hasCandidates()) {
+                throw new IllegalStateException("Gemini retornou resposta vazia ou sem candidatos");
+            }
 
-        HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.APPLICATION_JSON);
+            String aiResponseRaw = response.text();
+            log.info("Gemini Raw Response for fixture {}:\n{}", fixture.getId(), aiResponseRaw);
 
+            AnalysisData analysis = finishAnalysis(fixture, aiResponseRaw);
+            geminiResponseCache.put(cacheKey, aiResponseRaw, Duration.ofNanos(System.nanoTime() - start));
+            return analysis;
+        });
+    }
+
+    // Análises usam o bulkhead próprio, separado do das múltiplas
+    private CompletableFuture<GeminiClient.GeminiResponse> generateContent(Map<String, Object> requestBody) {
+        return geminiClient.generateContent(GeminiBulkhead.Pool.ANALYSIS, GEMINI_MODEL, requestBody);
+    }
+
+    private CompletableFuture<GeminiClient.StreamResult> streamGenerateContent(Map<String, Object> requestBody,
+            IncrementalJsonTreeBuilder tree) {
+        return geminiClient.streamGenerateContent(GeminiBulkhead.Pool.ANALYSIS, GEMINI_MODEL, requestBody, tree::feed);
+    }
+
+    /**
+     * Consome a resposta via SSE montando o JSON da análise conforme os campos
+     * chegam, sem acumular o texto bruto. Um stream truncado não é salvo nem
+     * publicado: a análise com os campos recebidos segue para o chamador dentro de
+     * {@link GeminiIncompleteStreamException}. O {@link GeminiRetryPolicy} refaz a
+     * chamada e, esgotadas as tentativas, a partida fica FAILED.
+     */
+    private CompletableFuture<AnalysisData> callGeminiStreaming(Fixture fixture, Map<String, Object> requestBody,
+            String cacheKey, int estimatedTokens) {
+        log.info("Iniciando análise Gemini (v2.0 Flash, streaming) para partida {}...", fixture.getId());
+        long start = System.nanoTime();
+        IncrementalJsonTreeBuilder tree = new IncrementalJsonTreeBuilder();
+
+        return streamGenerateContent(requestBody, tree).thenApply(result -> {
+            if (result.usageMetadata() != null && result.usageMetadata().totalTokenCount() != null) {
+                geminiRateLimiter.recordUsage(estimatedTokens, result.usageMetadata().totalTokenCount());
+            }
+            if (!tree.hasContent()) {
+                countStructuredParseFailure(fixture, "nenhum JSON no stream");
+                throw new IllegalStateException("Gemini não retornou JSON no stream");
+            }
+            log.info("Gemini Stream Response for fixture {}:\n{}", fixture.getId(), tree.root());
+
+            AnalysisData analysis;
+            try {
+                analysis = AnalysisUtils.finalizeAnalysis(objectMapper.treeToValue(tree.root(), AnalysisData.class));
+            } catch (Exception e) {
+                countStructuredParseFailure(fixture, e.getMessage());
+                throw new CompletionException(e);
+            }
+            if (!tree.isComplete()) {
+                throw new GeminiIncompleteStreamException(fixture.getId(), result.truncated(),
+                        applyBackendFields(fixture, analysis));
+            }
+            // A entrada do cache é o JSON já extraído
+            geminiResponseCache.put(cacheKey, tree.root().toString(), Duration.ofNanos(System.nanoTime() - start));
+            return completeAnalysis(fixture, analysis);
+        });
+    }
+
+    /**
+     * Analisa vários jogos da mesma janela em uma única requisição. O mapa
+     * devolvido (indexado pelo ID da partida) só contém os jogos cujo elemento
+     * veio válido na resposta; os demais devem ser refeitos individualmente pelo
+     * chamador.
+     */
+    public CompletableFuture<Map<Long, AnalysisData>> analyzeBatchAsync(List<AnalysisContextDTO> contexts) {
+        if (!geminiClient.isConfigured()) {
+            log.warn("API Key do Gemini não configurada");
+            return CompletableFuture.completedFuture(Map.of());
+        }
+
+        String prompt = promptTemplateService.batchAnalysisPrompt(contexts);
         Map<String, Object> requestBody = Map.of("contents", List.of(Map.of("parts", List.of(Map.of("text", prompt)))),
                 "tools", List.of(Map.of("google_search", Map.of())), "generationConfig", Map.of("temperature", 0.1));
 
-        HttpEntity<Map<String, Object>> request = new HttpEntity<>(requestBody, headers);
-        GeminiResponse response = restTemplate.postForObject(url, request, GeminiResponse.class);
+        String cacheKey = geminiResponseCache.keyFor(GEMINI_MODEL, requestBody);
+        Optional<String> cached = geminiResponseCache.get(cacheKey);
+        if (cached.isPresent()) {
+            log.info("Resposta em lote do Gemini encontrada no cache ({} jogos).", contexts.size());
+            return CompletableFuture.supplyAsync(() -> completeBatch(contexts, cached.get()), limiterExecutor);
+        }
 
-        if (response != null && response.candidates() != null && !response.candidates().isEmpty()) {
-            String aiResponseRaw = extractTextFromResponse(response);
-            log.info("Gemini Raw Response for fixture {}:\n{}", fixture.getId(), aiResponseRaw);
+        int estimatedTokens = prompt.length() / 4 + OUTPUT_TOKEN_ESTIMATE * contexts.size();
+        return geminiRetryPolicy.execute("Análise em lote", () -> acquireQuota(estimatedTokens).thenCompose(v -> {
+            log.info("Iniciando análise Gemini em lote para {} jogos...", contexts.size());
+            long start = System.nanoTime();
 
-            AnalysisData analysis = AnalysisUtils.processAnalysisData(aiResponseRaw, objectMapper);
-
-            String market = analysis.getBetSuggestion().getMarket();
-            boolean winOrDraw = market != null
-                    && (market.toLowerCase().contains("empate") || market.toLowerCase().contains("draw")
-                            || market.toLowerCase().contains("chance") || market.toLowerCase().contains("ou x"));
-            analysis.setWinOrDraw(winOrDraw);
-
-            if (market != null) {
-                String lowerMarket = market.toLowerCase();
-                String lowerHome = fixture.getHomeTeam().toLowerCase();
-                String lowerAway = fixture.getAwayTeam().toLowerCase();
-
-                if (lowerMarket.contains(lowerHome)) {
-                    analysis.setWinner(new AnalysisData.WinnerNode(fixture.getHomeTeamId(), fixture.getHomeTeam()));
-                } else if (lowerMarket.contains(lowerAway)) {
-                    analysis.setWinner(new AnalysisData.WinnerNode(fixture.getAwayTeamId(), fixture.getAwayTeam()));
-                } else if (lowerMarket.startsWith("vitoria casa") || lowerMarket.startsWith("1")
-                        || lowerMarket.contains("mandante")) {
-                    analysis.setWinner(new AnalysisData.WinnerNode(fixture.getHomeTeamId(), fixture.getHomeTeam()));
-                } else if (lowerMarket.startsWith("vitoria fora") || lowerMarket.startsWith("2")
-                        || lowerMarket.contains("visitante")) {
-                    analysis.setWinner(new AnalysisData.WinnerNode(fixture.getAwayTeamId(), fixture.getAwayTeam()));
+            return generateContent(requestBody).thenApply(response -> {
+                if (response.usageMetadata() != null && response.usageMetadata().totalTokenCount() != null) {
+                    geminiRateLimiter.recordUsage(estimatedTokens, response.usageMetadata().totalTokenCount());
                 }
-            }
 
-            dynamoDBService.updateIAAnalysis(fixture.getId(), analysis);
-            return analysis;
-        }
+                String aiResponseRaw = response.text();
+                log.info("Gemini Raw Response (lote de {} jogos):\n{}", contexts.size(), aiResponseRaw);
 
-        throw new RuntimeException("Gemini retornou resposta vazia ou sem candidatos");
+                Map<Long, AnalysisData> analyses = completeBatch(contexts, aiResponseRaw);
+                // Resposta parcial não vai para o cache, senão o lote nunca seria refeito por inteiro
+                if (analyses.size() == contexts.size()) {
+                    geminiResponseCache.put(cacheKey, aiResponseRaw, Duration.ofNanos(System.nanoTime() - start));
+                }
+                return analyses;
+            });
+        }));
     }
 
-    @Recover
-    public AnalysisData recover(Exception e, Fixture fixture, String statistics, String predictions) {
-        log.error("Recuperação ativada após falha persistente para partida {}: {}", fixture.getId(), e.getMessage());
-        return null;
+    private Map<Long, AnalysisData> completeBatch(List<AnalysisContextDTO> contexts, String aiResponseRaw) {
+        Map<Long, AnalysisData> parsed = AnalysisUtils.processBatchAnalysisData(aiResponseRaw, objectMapper);
+        Map<Long, AnalysisData> analyses = new LinkedHashMap<>();
+        for (AnalysisContextDTO context : contexts) {
+            Fixture fixture = context.getFixture();
+            AnalysisData analysis = parsed.get(fixture.getId());
+            if (analysis != null) {
+                analyses.put(fixture.getId(), completeAnalysis(fixture, analysis));
+            }
+        }
+        return analyses;
     }
 
-    private String extractTextFromResponse(GeminiResponse response) {
-        if (response == null || response.candidates() == null || response.candidates().isEmpty()) {
-            return "";
+    private AnalysisData finishAnalysis(Fixture fixture, String aiResponseRaw) {
+        AnalysisData analysis;
+        try {
+            analysis = structuredOutput
+                    ? AnalysisUtils.processStructuredAnalysisData(aiResponseRaw, objectMapper)
+                    : AnalysisUtils.processAnalysisData(aiResponseRaw, objectMapper);
+        } catch (Exception e) {
+            countStructuredParseFailure(fixture, e.getMessage());
+            throw new CompletionException(e);
         }
-        return response.candidates().get(0).content().parts().get(0).text();
+        return completeAnalysis(fixture, analysis);
     }
 
-    public record GeminiResponse(List<Candidate> candidates) {
+    private void countStructuredParseFailure(Fixture fixture, String reason) {
+        if (structuredOutput) {
+            structuredParseFailures.increment();
+            log.error("Resposta estruturada inválida para partida {}: {}", fixture.getId(), reason);
+        }
     }
 
-    public record Candidate(Content content) {
+    private AnalysisData completeAnalysis(Fixture fixture, AnalysisData analysis) {
+        applyBackendFields(fixture, analysis);
+        analysisWriteBehindService.enqueue(fixture.getId(), analysis);
+        return analysis;
     }
 
-    public record Content(List<Part> parts) {
-    }
+    private AnalysisData applyBackendFields(Fixture fixture, AnalysisData analysis) {
+        String market = analysis.getBetSuggestion().getMarket();
+        boolean winOrDraw = market != null
+                && (market.toLowerCase().contains("empate") || market.toLowerCase().contains("draw")
+                        || market.toLowerCase().contains("chance") || market.toLowerCase().contains("ou x"));
+        analysis.setWinOrDraw(winOrDraw);
 
-    public record Part(String text) {
+        if (market != null) {
+            String lowerMarket = market.toLowerCase();
+            String lowerHome = fixture.getHomeTeam().toLowerCase();
+            String lowerAway = fixture.getAwayTeam().toLowerCase();
+
+            if (lowerMarket.contains(lowerHome)) {
+                analysis.setWinner(new AnalysisData.WinnerNode(fixture.getHomeTeamId(), fixture.getHomeTeam()));
+            } else if (lowerMarket.contains(lowerAway)) {
+                analysis.setWinner(new AnalysisData.WinnerNode(fixture.getAwayTeamId(), fixture.getAwayTeam()));
+            } else if (lowerMarket.startsWith("vitoria casa") || lowerMarket.startsWith("1")
+                    || lowerMarket.contains("mandante")) {
+                analysis.setWinner(new AnalysisData.WinnerNode(fixture.getHomeTeamId(), fixture.getHomeTeam()));
+            } else if (lowerMarket.startsWith("vitoria fora") || lowerMarket.startsWith("2")
+                    || lowerMarket.contains("visitante")) {
+                analysis.setWinner(new AnalysisData.WinnerNode(fixture.getAwayTeamId(), fixture.getAwayTeam()));
+            }
+        }
+        return analysis;
     }
 }
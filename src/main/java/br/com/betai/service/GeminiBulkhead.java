@@ -0,0 +1,82 @@
+package br.com.betai.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Limita as chamadas simultâneas ao Gemini por origem, para que as múltiplas
+ * e as análises individuais não consumam as vagas uma da outra. Quem não
+ * consegue vaga espera até {@code gemini.bulkhead.max-wait} em uma thread
+ * virtual e depois falha com {@link GeminiBulkheadFullException}.
+ */
+@Component
+public class GeminiBulkhead {
+
+    public enum Pool {
+        ANALYSIS, MULTIBET
+    }
+
+    private final Map<Pool, Semaphore> permits = new EnumMap<>(Pool.class);
+    private final Duration maxWait;
+    private final ExecutorService waitExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public GeminiBulkhead(@Value("${gemini.bulkhead.analysis.max-concurrent:4}") int analysisConcurrency,
+            @Value("${gemini.bulkhead.multibet.max-concurrent:1}") int multiBetConcurrency,
+            @Value("${gemini.bulkhead.max-wait:30s}") Duration maxWait, MeterRegistry meterRegistry) {
+        this.permits.put(Pool.ANALYSIS, new Semaphore(analysisConcurrency));
+        this.permits.put(Pool.MULTIBET, new Semaphore(multiBetConcurrency));
+        this.maxWait = maxWait;
+        permits.forEach((pool, semaphore) -> Gauge
+                .builder("betai.gemini.bulkhead.available", semaphore, Semaphore::availablePermits)
+                .tag("pool", pool.name().toLowerCase()).description("Vagas livres no bulkhead do Gemini")
+                .register(meterRegistry));
+    }
+
+    public <T> CompletableFuture<T> execute(Pool pool, Supplier<CompletableFuture<T>> call) {
+        Semaphore semaphore = permits.get(pool);
+        if (semaphore.tryAcquire()) {
+            return run(semaphore, call);
+        }
+
+        return CompletableFuture.runAsync(() -> {
+            try {
+                if (!semaphore.tryAcquire(maxWait.toMillis(), TimeUnit.MILLISECONDS)) {
+                    throw new GeminiBulkheadFullException(pool);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CompletionException(e);
+            }
+        }, waitExecutor).thenCompose(v -> run(semaphore, call));
+    }
+
+    private static <T> CompletableFuture<T> run(Semaphore semaphore, Supplier<CompletableFuture<T>> call) {
+        CompletableFuture<T> future;
+        try {
+            future = call.get();
+        } catch (RuntimeException e) {
+            semaphore.release();
+            return CompletableFuture.failedFuture(e);
+        }
+        return future.whenComplete((value, error) -> semaphore.release());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        waitExecutor.close();
+    }
+}
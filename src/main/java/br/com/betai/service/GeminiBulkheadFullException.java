@@ -0,0 +1,13 @@
+package br.com.betai.service;
+
+/**
+ * Nenhuma vaga livre no bulkhead do Gemini dentro do tempo máximo de espera.
+ */
+public class GeminiBulkheadFullException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public GeminiBulkheadFullException(GeminiBulkhead.Pool pool) {
+        super("Bulkhead do Gemini sem vagas para " + pool);
+    }
+}
@@ -0,0 +1,277 @@
+package br.com.betai.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Circuit breaker das chamadas HTTP ao Gemini. Avalia as últimas
+ * {@code gemini.circuit-breaker.window-size} chamadas e abre quando a taxa de
+ * erros (rede, timeout, 5xx, 429) ou de chamadas lentas passa do limite.
+ * Aberto, rejeita as chamadas na hora por {@code open-duration}; depois libera
+ * algumas chamadas de teste (meio aberto) e fecha se todas passarem. Cada
+ * permissão leva a geração do estado em que foi concedida, e resultados de uma
+ * geração anterior (ex.: chamada lenta liberada ainda fechado que termina no
+ * meio aberto) são ignorados.
+ * <p>
+ * O estado aparece no health do actuator e na métrica
+ * {@code betai.gemini.circuit.state}. Com o circuito aberto o health não fica
+ * DOWN, para a indisponibilidade do Gemini não derrubar a instância.
+ */
+@Component
+public final class GeminiCircuitBreaker implements HealthIndicator {
+
+    private static final Logger log = LoggerFactory.getLogger(GeminiCircuitBreaker.class);
+    private static final long NO_PERMISSION = -1;
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final int minimumCalls;
+    private final double failureRateThreshold;
+    private final double slowCallRateThreshold;
+    private final long slowCallNanos;
+    private final Duration openDuration;
+    private final int halfOpenCalls;
+    private final MeterRegistry meterRegistry;
+
+    // Janela deslizante das últimas chamadas (anel)
+    private final boolean[] failed;
+    private final boolean[] slow;
+    private int next;
+    private int recorded;
+    private int failures;
+    private int slowCalls;
+
+    private State state = State.CLOSED;
+    // Incrementada a cada transição de estado
+    private long generation;
+    private Instant openUntil;
+    private int halfOpenInFlight;
+    private int halfOpenSucceeded;
+
+    public GeminiCircuitBreaker(@Value("${gemini.circuit-breaker.window-size:20}") int windowSize,
+            @Value("${gemini.circuit-breaker.minimum-calls:10}") int minimumCalls,
+            @Value("${gemini.circuit-breaker.failure-rate-threshold:0.5}") double failureRateThreshold,
+            @Value("${gemini.circuit-breaker.slow-call-rate-threshold:0.8}") double slowCallRateThreshold,
+            @Value("${gemini.circuit-breaker.slow-call-duration:60s}") Duration slowCallDuration,
+            @Value("${gemini.circuit-breaker.open-duration:60s}") Duration openDuration,
+            @Value("${gemini.circuit-breaker.half-open-calls:2}") int halfOpenCalls, MeterRegistry meterRegistry) {
+        this.failed = new boolean[windowSize];
+        this.slow = new boolean[windowSize];
+        this.minimumCalls = Math.min(minimumCalls, windowSize);
+        this.failureRateThreshold = failureRateThreshold;
+        this.slowCallRateThreshold = slowCallRateThreshold;
+        this.slowCallNanos = slowCallDuration.toNanos();
+        this.openDuration = openDuration;
+        this.halfOpenCalls = halfOpenCalls;
+        this.meterRegistry = meterRegistry;
+        Gauge.builder("betai.gemini.circuit.state", this, breaker -> breaker.state().ordinal())
+                .description("Estado do circuit breaker do Gemini (0 fechado, 1 aberto, 2 meio aberto)")
+                .register(meterRegistry);
+    }
+
+    public <T> CompletableFuture<T> execute(Supplier<CompletableFuture<T>> call) {
+        long permission = tryAcquirePermission();
+        if (permission == NO_PERMISSION) {
+            count("rejected");
+            return CompletableFuture.failedFuture(new GeminiCircuitOpenException(openUntil()));
+        }
+
+        long start = System.nanoTime();
+        CompletableFuture<T> future;
+        try {
+            future = call.get();
+        } catch (RuntimeException e) {
+            future = CompletableFuture.failedFuture(e);
+        }
+        return future.whenComplete((value, error) -> onResult(permission, System.nanoTime() - start, error));
+    }
+
+    /**
+     * Aberto e ainda dentro do {@code open-duration}: chamadas seriam rejeitadas.
+     * Usado pelo agendamento para não enfileirar partidas enquanto o Gemini está
+     * fora.
+     */
+    public boolean isOpen() {
+        lock.lock();
+        try {
+            return state == State.OPEN && Instant.now().isBefore(openUntil);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public State state() {
+        lock.lock();
+        try {
+            return state;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Health health() {
+        lock.lock();
+        try {
+            Health.Builder builder = switch (state) {
+                case CLOSED -> Health.up();
+                case OPEN -> Health.status(new Status("CIRCUIT_OPEN")).withDetail("openUntil", openUntil.toString());
+                case HALF_OPEN -> Health.status(new Status("CIRCUIT_HALF_OPEN"));
+            };
+            return builder.withDetail("state", state).withDetail("bufferedCalls", recorded)
+                    .withDetail("failureRate", rate(failures)).withDetail("slowCallRate", rate(slowCalls)).build();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Geração do estado atual se a chamada pode seguir, ou
+     * {@link #NO_PERMISSION}.
+     */
+    private long tryAcquirePermission() {
+        lock.lock();
+        try {
+            if (state == State.OPEN && !Instant.now().isBefore(openUntil)) {
+                transitionTo(State.HALF_OPEN);
+            }
+            return switch (state) {
+                case CLOSED -> generation;
+                case OPEN -> NO_PERMISSION;
+                case HALF_OPEN -> {
+                    if (halfOpenInFlight + halfOpenSucceeded >= halfOpenCalls) {
+                        yield NO_PERMISSION;
+                    }
+                    halfOpenInFlight++;
+                    yield generation;
+                }
+            };
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void onResult(long permission, long durationNanos, Throwable error) {
+        boolean isFailure = error != null && countsAsFailure(unwrap(error));
+        boolean isSlow = durationNanos > slowCallNanos;
+        count(isFailure ? "failure" : isSlow ? "slow" : "success");
+
+        lock.lock();
+        try {
+            if (permission != generation) {
+                // Chamada liberada em um estado anterior; não conta para o atual
+                return;
+            }
+            switch (state) {
+                case CLOSED -> {
+                    record(isFailure, isSlow);
+                    if (recorded >= minimumCalls
+                            && (rate(failures) >= failureRateThreshold || rate(slowCalls) >= slowCallRateThreshold)) {
+                        log.warn("Circuit breaker do Gemini aberto: {}% de falhas e {}% de chamadas lentas nas "
+                                + "últimas {} chamadas", Math.round(rate(failures) * 100),
+                                Math.round(rate(slowCalls) * 100), recorded);
+                        transitionTo(State.OPEN);
+                    }
+                }
+                case HALF_OPEN -> {
+                    halfOpenInFlight--;
+                    if (isFailure || isSlow) {
+                        log.warn("Chamada de teste ao Gemini falhou. Circuit breaker aberto novamente.");
+                        transitionTo(State.OPEN);
+                    } else if (++halfOpenSucceeded >= halfOpenCalls) {
+                        log.info("Gemini respondeu às chamadas de teste. Circuit breaker fechado.");
+                        transitionTo(State.CLOSED);
+                    }
+                }
+                case OPEN -> {
+                    // Nenhuma permissão é concedida com o circuito aberto
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Só conta o que indica Gemini indisponível. Erros de requisição (4xx) e de
+     * parse da resposta não abrem o circuito.
+     */
+    private static boolean countsAsFailure(Throwable cause) {
+        if (cause instanceof GeminiHttpException http) {
+            return http.getStatusCode() >= 500 || http.getStatusCode() == 429 || http.getStatusCode() == 408;
+        }
+        return cause instanceof IOException;
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+
+    private void record(boolean isFailure, boolean isSlow) {
+        if (recorded == failed.length) {
+            failures -= failed[next] ? 1 : 0;
+            slowCalls -= slow[next] ? 1 : 0;
+        } else {
+            recorded++;
+        }
+        failed[next] = isFailure;
+        slow[next] = isSlow;
+        failures += isFailure ? 1 : 0;
+        slowCalls += isSlow ? 1 : 0;
+        next = (next + 1) % failed.length;
+    }
+
+    private void transitionTo(State target) {
+        state = target;
+        generation++;
+        halfOpenInFlight = 0;
+        halfOpenSucceeded = 0;
+        if (target == State.OPEN) {
+            openUntil = Instant.now().plus(openDuration);
+        }
+        if (target != State.HALF_OPEN) {
+            // A janela recomeça a cada abertura/fechamento
+            next = 0;
+            recorded = 0;
+            failures = 0;
+            slowCalls = 0;
+        }
+    }
+
+    private double rate(int count) {
+        return recorded == 0 ? 0 : (double) count / recorded;
+    }
+
+    private Instant openUntil() {
+        lock.lock();
+        try {
+            return openUntil;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void count(String outcome) {
+        Counter.builder("betai.gemini.circuit.calls").tag("outcome", outcome)
+                .description("Chamadas ao Gemini vistas pelo circuit breaker").register(meterRegistry).increment();
+    }
+}
@@ -0,0 +1,23 @@
+package br.com.betai.service;
+
+import java.time.Instant;
+
+/**
+ * Chamada ao Gemini rejeitada sem ir à rede porque o circuit breaker está
+ * aberto.
+ */
+public class GeminiCircuitOpenException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Instant openUntil;
+
+    public GeminiCircuitOpenException(Instant openUntil) {
+        super("Circuit breaker do Gemini aberto até " + openUntil);
+        this.openUntil = openUntil;
+    }
+
+    public Instant getOpenUntil() {
+        return openUntil;
+    }
+}
@@ -0,0 +1,195 @@
+package br.com.betai.service;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Cliente assíncrono da API do Gemini sobre o {@link HttpClient} do JDK. Usa
+ * HTTP/2, então as chamadas simultâneas são multiplexadas na mesma conexão e
+ * nenhuma thread fica presa esperando a resposta. Toda chamada passa pelo
+ * {@link GeminiBulkhead} da origem e pelo {@link GeminiCircuitBreaker}.
+ */
+@Component
+public class GeminiClient {
+
+    private static final String BASE_URL = "https://generativelanguage.googleapis.com/v1beta/models/";
+
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper;
+    private final Duration requestTimeout;
+    private final GeminiCircuitBreaker circuitBreaker;
+    private final GeminiBulkhead bulkhead;
+
+    @Value("${gemini.api.key}")
+    private String apiKey;
+
+    public GeminiClient(@Value("${gemini.http.connect-timeout:20s}") Duration connectTimeout,
+            @Value("${gemini.http.request-timeout:120s}") Duration requestTimeout, GeminiCircuitBreaker circuitBreaker,
+            GeminiBulkhead bulkhead) {
+        this.httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_2).connectTimeout(connectTimeout)
+                .executor(Executors.newVirtualThreadPerTaskExecutor()).build();
+        this.objectMapper = new ObjectMapper().configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        this.requestTimeout = requestTimeout;
+        this.circuitBreaker = circuitBreaker;
+        this.bulkhead = bulkhead;
+    }
+
+    public boolean isConfigured() {
+        return apiKey != null && !apiKey.isEmpty() && !"YOUR_GEMINI_API_KEY".equals(apiKey);
+    }
+
+    public CompletableFuture<GeminiResponse> generateContent(GeminiBulkhead.Pool pool, String model,
+            Object requestBody) {
+        byte[] body;
+        try {
+            body = objectMapper.writeValueAsBytes(requestBody);
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+
+        // A chave vai no header para não aparecer em URLs de log/erro
+        HttpRequest request = HttpRequest.newBuilder(URI.create(BASE_URL + model + ":generateContent"))
+                .timeout(requestTimeout).header("Content-Type", "application/json").header("x-goog-api-key", apiKey)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body)).build();
+
+        return guarded(pool, () -> httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray())
+                .thenApply(this::readResponse));
+    }
+
+    /**
+     * Versão streaming (SSE) do generateContent: cada fragmento de texto é
+     * entregue a {@code onText} assim que chega. Se a conexão cair no meio, o
+     * resultado vem marcado como truncado em vez de falhar, preservando o que já
+     * foi entregue.
+     */
+    public CompletableFuture<StreamResult> streamGenerateContent(GeminiBulkhead.Pool pool, String model,
+            Object requestBody, Consumer<String> onText) {
+        byte[] body;
+        try {
+            body = objectMapper.writeValueAsBytes(requestBody);
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+
+        HttpRequest request = HttpRequest
+                .newBuilder(URI.create(BASE_URL + model + ":streamGenerateContent?alt=sse")).timeout(requestTimeout)
+                .header("Content-Type", "application/json").header("x-goog-api-key", apiKey)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body)).build();
+
+        return guarded(pool, () -> httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofLines())
+                .thenApply(response -> readStream(response, onText)));
+    }
+
+    private <T> CompletableFuture<T> guarded(GeminiBulkhead.Pool pool, Supplier<CompletableFuture<T>> call) {
+        // Com o circuito aberto falha na hora, sem ocupar vaga no bulkhead
+        if (circuitBreaker.isOpen()) {
+            return circuitBreaker.execute(call);
+        }
+        return bulkhead.execute(pool, () -> circuitBreaker.execute(call));
+    }
+
+    private StreamResult readStream(HttpResponse<Stream<String>> response, Consumer<String> onText) {
+        try (Stream<String> lines = response.body()) {
+            if (response.statusCode() / 100 != 2) {
+                throw new GeminiHttpException(response.statusCode(), retryAfter(response),
+                        lines.collect(Collectors.joining("\n")));
+            }
+
+            UsageMetadata usage = null;
+            Iterator<String> iterator = lines.iterator();
+            try {
+                while (iterator.hasNext()) {
+                    String line = iterator.next();
+                    if (!line.startsWith("data:")) {
+                        continue;
+                    }
+                    GeminiResponse chunk = objectMapper.readValue(line.substring(5).trim(), GeminiResponse.class);
+                    if (chunk.hasCandidates()) {
+                        onText.accept(chunk.text());
+                    }
+                    if (chunk.usageMetadata() != null) {
+                        usage = chunk.usageMetadata();
+                    }
+                }
+            } catch (IOException | UncheckedIOException e) {
+                return new StreamResult(usage, true);
+            }
+            return new StreamResult(usage, false);
+        }
+    }
+
+    private GeminiResponse readResponse(HttpResponse<byte[]> response) {
+        if (response.statusCode() / 100 != 2) {
+            throw new GeminiHttpException(response.statusCode(), retryAfter(response),
+                    new String(response.body(), StandardCharsets.UTF_8));
+        }
+        try {
+            return objectMapper.readValue(response.body(), GeminiResponse.class);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Duration retryAfter(HttpResponse<?> response) {
+        return response.headers().firstValue("Retry-After").map(value -> {
+            try {
+                return Duration.ofSeconds(Long.parseLong(value.trim()));
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }).orElse(null);
+    }
+
+    public record GeminiResponse(List<Candidate> candidates, UsageMetadata usageMetadata) {
+
+        /**
+         * Texto da primeira parte do primeiro candidato, ou vazio se não houver.
+         */
+        public String text() {
+            if (candidates == null || candidates.isEmpty() || candidates.get(0).content() == null
+                    || candidates.get(0).content().parts() == null
+                    || candidates.get(0).content().parts().isEmpty()) {
+                return "";
+            }
+            return candidates.get(0).content().parts().get(0).text();
+        }
+
+        public boolean hasCandidates() {
+            return candidates != null && !candidates.isEmpty();
+        }
+    }
+
+    public record Candidate(Content content) {
+    }
+
+    public record Content(List<Part> parts) {
+    }
+
+    public record Part(String text) {
+    }
+
+    public record UsageMetadata(Integer totalTokenCount) {
+    }
+
+    public record StreamResult(UsageMetadata usageMetadata, boolean truncated) {
+    }
+}
@@ -0,0 +1,42 @@
+package br.com.betai.service;
+
+import java.time.Duration;
+
+/**
+ * Resposta HTTP de erro da API do Gemini, com o status e o
+ * {@code Retry-After} (quando enviado) para quem decide sobre retry.
+ */
+public class GeminiHttpException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int statusCode;
+    private final Duration retryAfter;
+    private final String responseBody;
+
+    public GeminiHttpException(int statusCode, Duration retryAfter, String responseBody) {
+        super("Gemini respondeu HTTP " + statusCode + ": " + abbreviate(responseBody));
+        this.statusCode = statusCode;
+        this.retryAfter = retryAfter;
+        this.responseBody = responseBody;
+    }
+
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+
+    public String getResponseBody() {
+        return responseBody;
+    }
+
+    private static String abbreviate(String body) {
+        if (body == null) {
+            return "";
+        }
+        return body.length() > 300 ? body.substring(0, 300) + "..." : body;
+    }
+}
@@ -0,0 +1,24 @@
+package br.com.betai.service;
+
+import br.com.betai.domain.AnalysisData;
+
+/**
+ * Stream do Gemini encerrado antes do fim do JSON. A análise montada com os
+ * campos recebidos segue na exceção para o chamador, mas não é salva nem
+ * publicada.
+ */
+public class GeminiIncompleteStreamException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final transient AnalysisData partialAnalysis;
+
+    public GeminiIncompleteStreamException(Long fixtureId, boolean truncated, AnalysisData partialAnalysis) {
+        super("Stream do Gemini incompleto para partida " + fixtureId + " (truncado: " + truncated + ")");
+        this.partialAnalysis = partialAnalysis;
+    }
+
+    public AnalysisData getPartialAnalysis() {
+        return partialAnalysis;
+    }
+}
@@ -0,0 +1,104 @@
+package br.com.betai.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Token bucket compartilhado pelos consumidores de análise, com dois baldes:
+ * requisições/minuto e tokens/minuto da quota do Gemini. Os baldes recarregam
+ * continuamente; quem não tem saldo espera (barato em threads virtuais) em vez
+ * de uma pausa fixa por mensagem.
+ */
+@Component
+public class GeminiRateLimiter {
+
+    private static final Logger log = LoggerFactory.getLogger(GeminiRateLimiter.class);
+    private static final double NANOS_PER_MINUTE = TimeUnit.MINUTES.toNanos(1);
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final double requestsPerMinute;
+    private final double tokensPerMinute;
+    private final Timer waitTimer;
+
+    private double availableRequests;
+    private double availableTokens;
+    private long lastRefill;
+
+    public GeminiRateLimiter(@Value("${gemini.rate-limit.requests-per-minute:15}") double requestsPerMinute,
+            @Value("${gemini.rate-limit.tokens-per-minute:1000000}") double tokensPerMinute,
+            MeterRegistry meterRegistry) {
+        this.requestsPerMinute = requestsPerMinute;
+        this.tokensPerMinute = tokensPerMinute;
+        this.availableRequests = requestsPerMinute;
+        this.availableTokens = tokensPerMinute;
+        this.lastRefill = System.nanoTime();
+        this.waitTimer = Timer.builder("betai.gemini.rate_limit.wait")
+                .description("Tempo de espera por quota do Gemini antes de cada chamada").register(meterRegistry);
+    }
+
+    /**
+     * Bloqueia até haver saldo para uma requisição com o número estimado de
+     * tokens (entrada + saída).
+     */
+    public void acquire(int estimatedTokens) throws InterruptedException {
+        // Uma requisição maior que o balde inteiro nunca seria liberada
+        double tokens = Math.min(estimatedTokens, tokensPerMinute);
+        long start = System.nanoTime();
+
+        while (true) {
+            long waitNanos;
+            lock.lock();
+            try {
+                refill();
+                if (availableRequests >= 1 && availableTokens >= tokens) {
+                    availableRequests -= 1;
+                    availableTokens -= tokens;
+                    break;
+                }
+                double missingRequests = Math.max(0, 1 - availableRequests);
+                double missingTokens = Math.max(0, tokens - availableTokens);
+                waitNanos = (long) Math.max(missingRequests / requestsPerMinute * NANOS_PER_MINUTE,
+                        missingTokens / tokensPerMinute * NANOS_PER_MINUTE);
+            } finally {
+                lock.unlock();
+            }
+            TimeUnit.NANOSECONDS.sleep(Math.max(waitNanos, TimeUnit.MILLISECONDS.toNanos(10)));
+        }
+
+        long waited = System.nanoTime() - start;
+        waitTimer.record(waited, TimeUnit.NANOSECONDS);
+        if (waited > TimeUnit.SECONDS.toNanos(1)) {
+            log.info("Aguardou {} ms por quota do Gemini", TimeUnit.NANOSECONDS.toMillis(waited));
+        }
+    }
+
+    /**
+     * Corrige o balde de tokens com o consumo real informado pela API
+     * ({@code usageMetadata.totalTokenCount}). O saldo pode ficar negativo,
+     * atrasando as próximas chamadas.
+     */
+    public void recordUsage(int estimatedTokens, int actualTokens) {
+        lock.lock();
+        try {
+            refill();
+            availableTokens -= actualTokens - Math.min(estimatedTokens, tokensPerMinute);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void refill() {
+        long now = System.nanoTime();
+        double elapsedMinutes = (now - lastRefill) / NANOS_PER_MINUTE;
+        lastRefill = now;
+        availableRequests = Math.min(requestsPerMinute, availableRequests + elapsedMinutes * requestsPerMinute);
+        availableTokens = Math.min(tokensPerMinute, availableTokens + elapsedMinutes * tokensPerMinute);
+    }
+}
@@ -0,0 +1,258 @@
+package br.com.betai.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Cache das respostas do Gemini endereçado pelo conteúdo: a chave é o SHA-256
+ * do modelo + corpo da requisição (prompt, tools e generationConfig) em JSON
+ * canônico. Guarda o texto bruto devolvido pelo modelo em memória (LRU) e,
+ * opcionalmente, em disco, para sobreviver a reinícios. O disco é limpo na
+ * subida e periodicamente: arquivos além do TTL saem e, acima de
+ * {@code gemini.cache.disk-max-entries}, os mais antigos também.
+ */
+@Component
+public final class GeminiResponseCache {
+
+    private static final Logger log = LoggerFactory.getLogger(GeminiResponseCache.class);
+    // Temporários mais velhos que isso são sobras de gravações interrompidas
+    private static final Duration ORPHAN_TMP_AGE = Duration.ofMinutes(10);
+
+    private final Map<String, CachedResponse> memory;
+    private final ObjectMapper canonicalMapper = new ObjectMapper()
+            .configure(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS, true);
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Counter memoryHits;
+    private final Counter diskHits;
+    private final Counter misses;
+    private final Timer savedLatency;
+
+    @Value("${gemini.cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${gemini.cache.ttl:6h}")
+    private Duration ttl;
+
+    @Value("${gemini.cache.disk-dir:}")
+    private String diskDir;
+
+    @Value("${gemini.cache.disk-max-entries:2000}")
+    private int diskMaxEntries;
+
+    public GeminiResponseCache(@Value("${gemini.cache.max-entries:256}") int maxEntries,
+            MeterRegistry meterRegistry) {
+        this.memory = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedResponse> eldest) {
+                return size() > maxEntries;
+            }
+        };
+        this.memoryHits = Counter.builder("betai.gemini.cache.requests").tags("result", "hit", "tier", "memory")
+                .register(meterRegistry);
+        this.diskHits = Counter.builder("betai.gemini.cache.requests").tags("result", "hit", "tier", "disk")
+                .register(meterRegistry);
+        this.misses = Counter.builder("betai.gemini.cache.requests").tags("result", "miss", "tier", "none")
+                .register(meterRegistry);
+        this.savedLatency = Timer.builder("betai.gemini.cache.saved_latency")
+                .description("Latência da chamada original ao Gemini evitada por cada acerto no cache")
+                .register(meterRegistry);
+        Gauge.builder("betai.gemini.cache.hit.ratio", this, GeminiResponseCache::hitRatio).register(meterRegistry);
+    }
+
+    public String keyFor(String model, Object requestBody) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(model.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) '\n');
+            digest.update(canonicalMapper.writeValueAsBytes(requestBody));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException | IOException e) {
+            throw new IllegalStateException("Não foi possível calcular a chave do cache do Gemini", e);
+        }
+    }
+
+    public Optional<String> get(String key) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+
+        synchronized (memory) {
+            CachedResponse cached = memory.get(key);
+            if (cached != null && !cached.isExpired(ttl)) {
+                memoryHits.increment();
+                savedLatency.record(Duration.ofMillis(cached.latencyMs()));
+                return Optional.of(cached.text());
+            }
+        }
+
+        CachedResponse fromDisk = readFromDisk(key);
+        if (fromDisk != null && fromDisk.isExpired(ttl)) {
+            deleteFromDisk(key);
+        } else if (fromDisk != null) {
+            synchronized (memory) {
+                memory.put(key, fromDisk);
+            }
+            diskHits.increment();
+            savedLatency.record(Duration.ofMillis(fromDisk.latencyMs()));
+            return Optional.of(fromDisk.text());
+        }
+
+        misses.increment();
+        return Optional.empty();
+    }
+
+    /**
+     * Só deve ser chamado com respostas já validadas (parse OK), para não
+     * congelar uma resposta inválida no cache.
+     */
+    public void put(String key, String text, Duration latency) {
+        if (!enabled || text == null) {
+            return;
+        }
+        CachedResponse cached = new CachedResponse(text, latency.toMillis(), Instant.now().toEpochMilli());
+        synchronized (memory) {
+            memory.put(key, cached);
+        }
+        writeToDisk(key, cached);
+    }
+
+    /**
+     * Descarta uma resposta que passou pelo cache mas não pôde ser processada, para
+     * que a próxima tentativa chame o modelo de novo.
+     */
+    public void invalidate(String key) {
+        synchronized (memory) {
+            memory.remove(key);
+        }
+        deleteFromDisk(key);
+    }
+
+    /**
+     * Remove do disco as respostas expiradas e, se ainda houver mais arquivos que
+     * o limite, as mais antigas. A primeira execução acontece na subida.
+     */
+    @Scheduled(fixedDelayString = "${gemini.cache.disk-cleanup-interval-ms:3600000}")
+    public void cleanUpDisk() {
+        if (diskDir == null || diskDir.isBlank() || !Files.isDirectory(Path.of(diskDir))) {
+            return;
+        }
+
+        long now = Instant.now().toEpochMilli();
+        int removed = 0;
+        List<DiskEntry> kept = new java.util.ArrayList<>();
+        try (Stream<Path> files = Files.list(Path.of(diskDir))) {
+            for (Path file : files.toList()) {
+                String name = file.getFileName().toString();
+                boolean tmp = name.endsWith(".tmp");
+                if (!tmp && !name.endsWith(".json")) {
+                    continue;
+                }
+                // O arquivo é gravado uma única vez (put), então o mtime é a criação da entrada
+                FileTime modifiedAt = Files.getLastModifiedTime(file);
+                if (now - modifiedAt.toMillis() > (tmp ? ORPHAN_TMP_AGE : ttl).toMillis()) {
+                    removed += Files.deleteIfExists(file) ? 1 : 0;
+                } else if (!tmp) {
+                    kept.add(new DiskEntry(file, modifiedAt));
+                }
+            }
+
+            if (kept.size() > diskMaxEntries) {
+                kept.sort(Comparator.comparing(DiskEntry::modifiedAt));
+                for (DiskEntry entry : kept.subList(0, kept.size() - diskMaxEntries)) {
+                    removed += Files.deleteIfExists(entry.file()) ? 1 : 0;
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Erro ao limpar o cache em disco do Gemini: {}", e.getMessage());
+        }
+
+        if (removed > 0) {
+            log.info("Cache em disco do Gemini: {} arquivos removidos", removed);
+        }
+    }
+
+    private void deleteFromDisk(String key) {
+        if (diskDir == null || diskDir.isBlank()) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(Path.of(diskDir, key + ".json"));
+        } catch (IOException e) {
+            log.warn("Erro ao remover entrada do cache em disco do Gemini: {}", e.getMessage());
+        }
+    }
+
+    private CachedResponse readFromDisk(String key) {
+        if (diskDir == null || diskDir.isBlank()) {
+            return null;
+        }
+        Path file = Path.of(diskDir, key + ".json");
+        if (!Files.exists(file)) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(file.toFile(), CachedResponse.class);
+        } catch (IOException e) {
+            log.warn("Entrada inválida no cache em disco do Gemini ({}): {}", file, e.getMessage());
+            return null;
+        }
+    }
+
+    private void writeToDisk(String key, CachedResponse cached) {
+        if (diskDir == null || diskDir.isBlank()) {
+            return;
+        }
+        try {
+            Path dir = Files.createDirectories(Path.of(diskDir));
+            // Grava em arquivo temporário e move, para que leitores nunca vejam JSON pela metade
+            Path tmp = Files.createTempFile(dir, key, ".tmp");
+            objectMapper.writeValue(tmp.toFile(), cached);
+            Files.move(tmp, dir.resolve(key + ".json"), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("Erro ao gravar cache em disco do Gemini: {}", e.getMessage());
+        }
+    }
+
+    private double hitRatio() {
+        double hits = memoryHits.count() + diskHits.count();
+        double total = hits + misses.count();
+        return total == 0 ? 0.0 : hits / total;
+    }
+
+    private record DiskEntry(Path file, FileTime modifiedAt) {
+    }
+
+    record CachedResponse(String text, long latencyMs, long createdAtEpochMs) {
+        boolean isExpired(Duration ttl) {
+            return Instant.now().toEpochMilli() - createdAtEpochMs > ttl.toMillis();
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package br.com.betai.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Retry das chamadas ao Gemini conforme o tipo de falha:
+ * <ul>
+ * <li>429/503: espera o tempo pedido pelo servidor ({@code Retry-After} ou
+ * {@code RetryInfo.retryDelay} do corpo);</li>
+ * <li>falhas transitórias (I/O de rede, {@code HttpTimeoutException}, 408,
+ * 5xx, bulkhead cheio e stream incompleto): backoff exponencial com
+ * jitter;</li>
+ * <li>todo o resto (JSON inválido, demais 4xx, resposta sem candidatos,
+ * circuito aberto e qualquer outra exceção): sem retry.</li>
+ * </ul>
+ * A espera é agendada com {@code delayedExecutor}, sem segurar thread, então o
+ * consumidor segue processando outras partidas enquanto uma aguarda.
+ */
+@Component
+public class GeminiRetryPolicy {
+
+    private static final Logger log = LoggerFactory.getLogger(GeminiRetryPolicy.class);
+    private static final Pattern RETRY_DELAY = Pattern.compile("\"retryDelay\"\\s*:\\s*\"(\\d+(?:\\.\\d+)?)s\"");
+
+    enum Decision {
+        RATE_LIMITED, TRANSIENT, FATAL
+    }
+
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final Duration maxServerDelay;
+    private final MeterRegistry meterRegistry;
+
+    public GeminiRetryPolicy(@Value("${gemini.retry.max-attempts:3}") int maxAttempts,
+            @Value("${gemini.retry.initial-backoff:2s}") Duration initialBackoff,
+            @Value("${gemini.retry.max-backoff:60s}") Duration maxBackoff,
+            @Value("${gemini.retry.max-server-delay:120s}") Duration maxServerDelay, MeterRegistry meterRegistry) {
+        this.maxAttempts = maxAttempts;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+        this.maxServerDelay = maxServerDelay;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public <T> CompletableFuture<T> execute(String operation, Supplier<CompletableFuture<T>> call) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        attempt(operation, call, 1, result);
+        return result;
+    }
+
+    private <T> void attempt(String operation, Supplier<CompletableFuture<T>> call, int attempt,
+            CompletableFuture<T> result) {
+        CompletableFuture<T> future;
+        try {
+            future = call.get();
+        } catch (RuntimeException e) {
+            future = CompletableFuture.failedFuture(e);
+        }
+
+        future.whenComplete((value, error) -> {
+            if (error == null) {
+                result.complete(value);
+                return;
+            }
+
+            Throwable cause = unwrap(error);
+            Decision decision = classify(cause);
+            Duration delay = decision == Decision.FATAL ? null : delayFor(decision, cause, attempt);
+            if (delay == null || attempt >= maxAttempts) {
+                count(decision == Decision.FATAL ? "fatal" : "exhausted");
+                log.error("{} falhou na tentativa {}/{} ({}): {}", operation, attempt, maxAttempts, decision,
+                        cause.getMessage());
+                result.completeExceptionally(cause);
+                return;
+            }
+
+            count(decision == Decision.RATE_LIMITED ? "rate_limited" : "transient");
+            log.warn("{} falhou na tentativa {}/{} ({}). Nova tentativa em {} ms: {}", operation, attempt,
+                    maxAttempts, decision, delay.toMillis(), cause.getMessage());
+            CompletableFuture.delayedExecutor(delay.toMillis(), TimeUnit.MILLISECONDS)
+                    .execute(() -> attempt(operation, call, attempt + 1, result));
+        });
+    }
+
+    static Decision classify(Throwable cause) {
+        if (cause instanceof GeminiHttpException http) {
+            int status = http.getStatusCode();
+            if (status == 429 || status == 503) {
+                return Decision.RATE_LIMITED;
+            }
+            return status >= 500 || status == 408 ? Decision.TRANSIENT : Decision.FATAL;
+        }
+        if (cause instanceof GeminiBulkheadFullException || cause instanceof GeminiIncompleteStreamException) {
+            return Decision.TRANSIENT;
+        }
+        // O GeminiClient embrulha erros de leitura do corpo em UncheckedIOException
+        Throwable io = cause instanceof UncheckedIOException unchecked ? unchecked.getCause() : cause;
+        if (io instanceof IOException && !(io instanceof JsonProcessingException)) {
+            // Rede ou timeout (HttpTimeoutException é um IOException)
+            return Decision.TRANSIENT;
+        }
+        return Decision.FATAL;
+    }
+
+    /**
+     * Tempo até a próxima tentativa, ou null se o servidor pediu uma espera maior
+     * que {@code gemini.retry.max-server-delay} (ex.: quota diária esgotada).
+     */
+    private Duration delayFor(Decision decision, Throwable cause, int attempt) {
+        if (decision == Decision.RATE_LIMITED) {
+            Duration serverDelay = serverDelay((GeminiHttpException) cause);
+            if (serverDelay != null) {
+                if (serverDelay.compareTo(maxServerDelay) > 0) {
+                    return null;
+                }
+                // Jitter pequeno para as mensagens em paralelo não voltarem todas juntas
+                return serverDelay.plusMillis(ThreadLocalRandom.current().nextLong(serverDelay.toMillis() / 10 + 1));
+            }
+        }
+
+        long ceiling = Math.min(maxBackoff.toMillis(), initialBackoff.toMillis() << Math.min(attempt - 1, 20));
+        return Duration.ofMillis(ceiling / 2 + ThreadLocalRandom.current().nextLong(ceiling / 2 + 1));
+    }
+
+    private static Duration serverDelay(GeminiHttpException e) {
+        if (e.getRetryAfter() != null) {
+            return e.getRetryAfter();
+        }
+        if (e.getResponseBody() != null) {
+            Matcher matcher = RETRY_DELAY.matcher(e.getResponseBody());
+            if (matcher.find()) {
+                return Duration.ofMillis((long) (Double.parseDouble(matcher.group(1)) * 1000));
+            }
+        }
+        return null;
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        Throwable cause = error;
+        while ((cause instanceof CompletionException || cause instanceof ExecutionException)
+                && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause;
+    }
+
+    private void count(String outcome) {
+        Counter.builder("betai.gemini.retry").tag("outcome", outcome)
+                .description("Tentativas refeitas ou abandonadas nas chamadas ao Gemini").register(meterRegistry)
+                .increment();
+    }
+}
@@ -1,33 +1,53 @@
 package br.com.betai.service;
 
 import br.com.betai.domain.Fixture;
+import br.com.betai.domain.FixtureView;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import br.com.betai.domain.AnalysisData;
 import br.com.betai.domain.AnalysisContextDTO;
+import br.com.betai.domain.AnalysisStatus;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class MatchFilterService {
     private static final Logger log = LoggerFactory.getLogger(MatchFilterService.class);
+    // Limite de tamanho de mensagem do SQS (256 KiB), com folga para os colchetes/vírgulas do lote
+    private static final int SQS_MAX_PAYLOAD_BYTES = 256 * 1024 - 1024;
     private final DynamoDBService dynamoDBService;
     private final SqsService sqsService;
+    private final GeminiCircuitBreaker geminiCircuitBreaker;
     private final ObjectMapper objectMapper;
 
-    public MatchFilterService(DynamoDBService dynamoDBService, SqsService sqsService) {
+    @Value("${analysis.state.stale-after-minutes:60}")
+    private long staleAfterMinutes;
+
+    @Value("${gemini.batch.size:1}")
+    private int batchSize;
+
+    public MatchFilterService(DynamoDBService dynamoDBService, SqsService sqsService,
+            GeminiCircuitBreaker geminiCircuitBreaker) {
         this.dynamoDBService = dynamoDBService;
         this.sqsService = sqsService;
+        this.geminiCircuitBreaker = geminiCircuitBreaker;
         this.objectMapper = new ObjectMapper().registerModule(new JavaTimeModule())
                 .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
     }
@@ -37,23 +57,25 @@ public class MatchFilterService {
      * melhores oportunidades para análise de IA.
      */
     public void filtrarOportunidadesDoDia() {
+        if (geminiIndisponivel()) {
+            return;
+        }
         LocalDate today = LocalDate.now();
-        List<Map<String, AttributeValue>> items = dynamoDBService.getFixturesByDate(today);
-
         log.info("--- Iniciando Filtragem de Jogos (Data: {}) ---", today);
 
-        List<Map<String, AttributeValue>> filteredItems = items.stream().filter(item -> {
-            Fixture fixture = dynamoDBService.mapToFixture(item);
-            if (fixture == null)
-                return false;
+        Stream<Map<String, AttributeValue>> filteredItems = dynamoDBService
+                .streamFixturesByDate(today, FixtureView.ANALYSIS_INPUT).filter(item -> {
+                    Fixture fixture = dynamoDBService.mapToFixture(item);
+                    if (fixture == null)
+                        return false;
 
-            // Só processar jogos nos status autorizados (NS, AET, 1H, HT, PEN)
-            String status = fixture.getStatusShort();
-            if (!java.util.Set.of("NS", "AET", "1H", "HT", "PEN", "PST").contains(status)) {
-                return false;
-            }
-            return true;
-        }).collect(Collectors.toList());
+                    // Só processar jogos nos status autorizados (NS, AET, 1H, HT, PEN)
+                    String status = fixture.getStatusShort();
+                    if (!java.util.Set.of("NS", "AET", "1H", "HT", "PEN", "PST").contains(status)) {
+                        return false;
+                    }
+                    return true;
+                });
 
         processarItensFiltrados(filteredItems);
     }
@@ -62,45 +84,45 @@ public class MatchFilterService {
      * Filtra e envia para análise jogos que começam em até 2 horas.
      */
     public void filtrarOportunidadesProximasQuatroHoras() {
+        if (geminiIndisponivel()) {
+            return;
+        }
         LocalDateTime now = LocalDateTime.now();
         LocalDateTime fourHoursFromNow = now.plus(4, ChronoUnit.HOURS);
         LocalDate today = LocalDate.now();
 
         log.info("--- Iniciando Filtragem de Próximos Jogos (Próximas 4h: {} até {}) ---", now, fourHoursFromNow);
 
-        List<Map<String, AttributeValue>> items = dynamoDBService.getFixturesByDate(today);
-
-        List<Map<String, AttributeValue>> filteredItems = items.stream().filter(item -> {
-            Fixture fixture = dynamoDBService.mapToFixture(item);
-            if (fixture == null || fixture.getDate() == null)
-                return false;
+        Stream<Map<String, AttributeValue>> filteredItems = dynamoDBService
+                .streamFixturesByDate(today, FixtureView.ANALYSIS_INPUT).filter(item -> {
+                    Fixture fixture = dynamoDBService.mapToFixture(item);
+                    if (fixture == null || fixture.getDate() == null)
+                        return false;
 
-            // Filtro: Não iniciado AND Horário entre Agora e +4h
-            boolean isNS = "NS".equals(fixture.getStatusShort());
-            boolean startsSoon = fixture.getDate().isAfter(now) && fixture.getDate().isBefore(fourHoursFromNow);
+                    // Filtro: Não iniciado AND Horário entre Agora e +4h
+                    boolean isNS = "NS".equals(fixture.getStatusShort());
+                    boolean startsSoon = fixture.getDate().isAfter(now) && fixture.getDate().isBefore(fourHoursFromNow);
 
-            return isNS && startsSoon;
-        }).collect(Collectors.toList());
+                    return isNS && startsSoon;
+                });
 
         processarItensFiltrados(filteredItems);
     }
 
-    private void processarItensFiltrados(List<Map<String, AttributeValue>> items) {
+    /**
+     * Processa cada jogo assim que sua página chega do DynamoDB, sem materializar
+     * o dia inteiro. Os jogos chegam em ordem de horário de início (chave de
+     * ordenação do índice ou ordenação do Scan), então os mais próximos são
+     * enviados para análise primeiro.
+     */
+    private void processarItensFiltrados(Stream<Map<String, AttributeValue>> items) {
         int oportunidades = 0;
         int descartados = 0;
+        List<JogoEnfileirado> lote = new ArrayList<>();
 
-        // Ordenar os itens por data do jogo
-        items.sort((a, b) -> {
-            try {
-                String dateA = a.get("fixture").m().get("date").s();
-                String dateB = b.get("fixture").m().get("date").s();
-                return dateA.compareTo(dateB);
-            } catch (Exception e) {
-                return 0;
-            }
-        });
-
-        for (Map<String, AttributeValue> item : items) {
+        Iterator<Map<String, AttributeValue>> iterator = items.iterator();
+        while (iterator.hasNext()) {
+            Map<String, AttributeValue> item = iterator.next();
             Fixture fixture = dynamoDBService.mapToFixture(item);
 
             if (item.containsKey("iaAnalysis")) {
@@ -128,12 +150,35 @@ public class MatchFilterService {
                 continue;
             }
 
+            // Já enfileirada ou em análise por outra execução do agendador
+            AnalysisStatus status = dynamoDBService.readAnalysisStatus(item);
+            if (status.isPending() && !isStale(status)) {
+                System.out.println(String.format("⏭️ [PULANDO] %s x %s | ID: %d | Motivo: Análise %s",
+                        fixture.getHomeTeam(), fixture.getAwayTeam(), fixture.getId(), status.state()));
+                continue;
+            }
+
+            // Partidas particionadas guardam as estatísticas e as odds completas em um item
+            // frio, lido só aqui
+            Map<String, AttributeValue> merged = dynamoDBService.withColdAttributes(item);
+            if (merged != item) {
+                item = merged;
+                fixture = dynamoDBService.mapToFixture(item);
+            }
+
             if (item.containsKey("stats")) {
-                try {
-                    oportunidades++;
-                    System.out.println(String.format("🔥 [INICIANDO ANÁLISE PRÓXIMA] %s x %s | ID: %d",
+                if (!dynamoDBService.markAnalysisQueued(fixture.getId(), status.version())) {
+                    System.out.println(String.format("⏭️ [PULANDO] %s x %s | ID: %d | Motivo: Já enfileirado",
                             fixture.getHomeTeam(), fixture.getAwayTeam(), fixture.getId()));
+                    continue;
+                }
 
+                oportunidades++;
+                System.out.println(String.format("🔥 [INICIANDO ANÁLISE PRÓXIMA] %s x %s | ID: %d",
+                        fixture.getHomeTeam(), fixture.getAwayTeam(), fixture.getId()));
+
+                String payloadJson;
+                try {
                     String statistics = dynamoDBService.convertAttributeValueToJson(item.get("stats"));
                     String predictions = "Previsões não encontradas no DynamoDB.";
                     if (item.containsKey("predictions")) {
@@ -141,11 +186,18 @@ public class MatchFilterService {
                     }
 
                     AnalysisContextDTO contextPayload = new AnalysisContextDTO(fixture, statistics, predictions);
-                    String payloadJson = objectMapper.writeValueAsString(contextPayload);
-                    sqsService.sendToAnalysisQueue(payloadJson);
-
+                    payloadJson = objectMapper.writeValueAsString(contextPayload);
                 } catch (Exception e) {
                     log.error("Erro ao processar jogo {}: {}", fixture.getId(), e.getMessage());
+                    desfazerEnfileiramento(fixture.getId(), status.version());
+                    continue;
+                }
+
+                JogoEnfileirado jogo = new JogoEnfileirado(fixture.getId(), status.version(), payloadJson);
+                if (batchSize > 1) {
+                    adicionarAoLote(lote, jogo);
+                } else {
+                    enviarLote(List.of(jogo));
                 }
             } else {
                 descartados++;
@@ -153,7 +205,90 @@ public class MatchFilterService {
                         fixture.getHomeTeam(), fixture.getAwayTeam(), fixture.getId()));
             }
         }
+        enviarLote(lote);
         log.info("--- Filtragem de Próximos Jogos Concluída: {} Oportunidades, {} Descartados ---", oportunidades,
                 descartados);
     }
+
+    /**
+     * Com o circuit breaker do Gemini aberto as mensagens só seriam rejeitadas no
+     * consumidor e as partidas marcadas como FAILED; melhor deixar para a próxima
+     * execução.
+     */
+    private boolean geminiIndisponivel() {
+        if (geminiCircuitBreaker.isOpen()) {
+            log.warn("Gemini indisponível (circuit breaker aberto). Enfileiramento adiado para a próxima "
+                    + "execução.");
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Agrupa os jogos da mesma janela em uma única mensagem (array JSON), que o
+     * consumidor analisa com um só prompt. O lote é enviado ao atingir
+     * {@code gemini.batch.size} ou o limite de tamanho do SQS.
+     */
+    private void adicionarAoLote(List<JogoEnfileirado> lote, JogoEnfileirado jogo) {
+        int tamanhoLote = lote.stream().mapToInt(j -> j.payloadJson().getBytes(StandardCharsets.UTF_8).length + 1)
+                .sum();
+        if (!lote.isEmpty() && (lote.size() >= batchSize
+                || tamanhoLote + jogo.payloadJson().getBytes(StandardCharsets.UTF_8).length > SQS_MAX_PAYLOAD_BYTES)) {
+            enviarLote(lote);
+            lote.clear();
+        }
+        lote.add(jogo);
+    }
+
+    /**
+     * Se o envio falhar, as partidas do lote voltam de QUEUED para FAILED e a
+     * filtragem segue com os próximos jogos.
+     */
+    private void enviarLote(List<JogoEnfileirado> lote) {
+        if (lote.isEmpty()) {
+            return;
+        }
+        boolean enviado;
+        try {
+            enviado = sqsService.sendToAnalysisQueue(lote.size() == 1 ? lote.get(0).payloadJson()
+                    : lote.stream().map(JogoEnfileirado::payloadJson).collect(Collectors.joining(",", "[", "]")));
+        } catch (Exception e) {
+            log.error("Erro ao enviar lote com {} jogos: {}", lote.size(), e.getMessage());
+            enviado = false;
+        }
+        if (enviado) {
+            log.info("Lote com {} jogos enviado para análise", lote.size());
+            return;
+        }
+        log.warn("Lote com {} jogos não enviado. Partidas liberadas para a próxima execução.", lote.size());
+        lote.forEach(jogo -> desfazerEnfileiramento(jogo.fixtureId(), jogo.versaoAnterior()));
+    }
+
+    /**
+     * Sem mensagem na fila a partida ficaria QUEUED até expirar. Se esta escrita
+     * também falhar, a expiração continua valendo como último recurso.
+     */
+    private void desfazerEnfileiramento(Long fixtureId, Long versaoAnterior) {
+        try {
+            dynamoDBService.markQueuedAnalysisFailed(fixtureId, versaoAnterior);
+        } catch (Exception e) {
+            log.error("Erro ao liberar a partida {} após falha no enfileiramento: {}", fixtureId, e.getMessage());
+        }
+    }
+
+    /**
+     * Jogo já marcado como QUEUED aguardando envio. {@code versaoAnterior} é a
+     * versão lida antes do enfileiramento, usada para desfazê-lo.
+     */
+    private record JogoEnfileirado(Long fixtureId, Long versaoAnterior, String payloadJson) {
+    }
+
+    /**
+     * Análises presas em QUEUED/IN_PROGRESS (mensagem perdida ou consumidor que
+     * caiu no meio) voltam a ser elegíveis depois do tempo configurado.
+     */
+    private boolean isStale(AnalysisStatus status) {
+        return status.updatedAt() == null
+                || status.updatedAt().isBefore(Instant.now().minus(Duration.ofMinutes(staleAfterMinutes)));
+    }
 }
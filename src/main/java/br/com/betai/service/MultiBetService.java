@@ -1,17 +1,13 @@
 package br.com.betai.service;
 
 import br.com.betai.domain.Fixture;
+import br.com.betai.domain.FixtureView;
 import br.com.betai.domain.MultiBetResponse;
 import br.com.betai.utils.AnalysisUtils;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.HttpEntity;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -22,21 +18,20 @@ import java.util.stream.Collectors;
 public class MultiBetService {
 
     private static final Logger log = LoggerFactory.getLogger(MultiBetService.class);
-    private static final String GEMINI_API_URL = "https://generativelanguage.googleapis.com/v1beta/models/gemini-2.0-flash-lite:generateContent";
+    private static final String GEMINI_MODEL = "gemini-2.0-flash-lite";
 
     private final DynamoDBService dynamoDBService;
-    private final RestTemplate restTemplate;
+    private final GeminiClient geminiClient;
     private final NotificationService notificationService;
+    private final PromptTemplateService promptTemplateService;
     private final ObjectMapper objectMapper;
 
-    @Value("${gemini.api.key}")
-    private String apiKey;
-
-    public MultiBetService(DynamoDBService dynamoDBService, RestTemplate restTemplate,
-            NotificationService notificationService) {
+    public MultiBetService(DynamoDBService dynamoDBService, GeminiClient geminiClient,
+            NotificationService notificationService, PromptTemplateService promptTemplateService) {
         this.dynamoDBService = dynamoDBService;
-        this.restTemplate = restTemplate;
+        this.geminiClient = geminiClient;
         this.notificationService = notificationService;
+        this.promptTemplateService = promptTemplateService;
         this.objectMapper = new ObjectMapper();
     }
 
@@ -44,7 +39,7 @@ public class MultiBetService {
         LocalDate today = LocalDate.now();
         log.info("Iniciando geração de múltiplas para o dia {}", today);
 
-        List<Fixture> fixtures = dynamoDBService.getFixturesByDateMapped(today);
+        List<Fixture> fixtures = dynamoDBService.getFixturesByDateMapped(today, FixtureView.LISTING);
 
         // Filtrar partidas com status NS e que possuam iaAnalysis
         List<Fixture> analyzedFixtures = fixtures.stream().filter(f -> "NS".equals(f.getStatusShort()))
@@ -56,7 +51,7 @@ public class MultiBetService {
             return;
         }
 
-        String prompt = AnalysisUtils.buildMultiBetPrompt(analyzedFixtures);
+        String prompt = promptTemplateService.multiBetPrompt(analyzedFixtures);
 
         try {
             MultiBetResponse response = callGeminiForMultiples(prompt);
@@ -79,33 +74,20 @@ public class MultiBetService {
         }
     }
 
-    @SuppressWarnings("unchecked")
     private MultiBetResponse callGeminiForMultiples(String prompt) {
-        if ("YOUR_GEMINI_API_KEY".equals(apiKey) || apiKey == null || apiKey.isEmpty()) {
+        if (!geminiClient.isConfigured()) {
             log.error("API Key do Gemini não configurada para múltiplas");
             return null;
         }
 
-        var url = GEMINI_API_URL + "?key=" + apiKey;
-        var headers = new HttpHeaders();
-        headers.setContentType(MediaType.APPLICATION_JSON);
-
         Map<String, Object> requestBody = Map.of("contents", List.of(Map.of("parts", List.of(Map.of("text", prompt)))),
                 "generationConfig", Map.of("response_mime_type", "application/json"));
 
-        var request = new HttpEntity<>(requestBody, headers);
-
         try {
-            var response = restTemplate.postForObject(url, request, Map.class);
-            if (response != null) {
-                List<Map<String, Object>> candidates = (List<Map<String, Object>>) response.get("candidates");
-                if (candidates != null && !candidates.isEmpty()) {
-                    Map<String, Object> content = (Map<String, Object>) candidates.get(0).get("content");
-                    List<Map<String, Object>> parts = (List<Map<String, Object>>) content.get("parts");
-                    String aiText = (String) parts.get(0).get("text");
-
-                    return AnalysisUtils.processMultiBetData(aiText, objectMapper);
-                }
+            GeminiClient.GeminiResponse response = geminiClient
+                    .generateContent(GeminiBulkhead.Pool.MULTIBET, GEMINI_MODEL, requestBody).join();
+            if (response != null && response.hasCandidates()) {
+                return AnalysisUtils.processMultiBetData(response.text(), objectMapper);
             }
         } catch (Exception e) {
             log.error("Erro na chamada da API Gemini para múltiplas", e);
@@ -1,6 +1,7 @@
 package br.com.betai.service;
 
 import br.com.betai.domain.Fixture;
+import br.com.betai.domain.FixtureView;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
@@ -35,8 +36,8 @@ public class NotificationService {
     public void sendDailyFixtures() {
         log.info("Starting daily fixtures notification task...");
         LocalDate today = LocalDate.now();
-        List<Fixture> fixtures = dynamoDBService.getFixturesByDate(today).stream().map(dynamoDBService::mapToFixture)
-                .filter(java.util.Objects::nonNull).toList();
+        List<Fixture> fixtures = dynamoDBService.getFixturesByDate(today, FixtureView.LISTING).stream()
+                .map(dynamoDBService::mapToFixture).filter(java.util.Objects::nonNull).toList();
 
         if (fixtures.isEmpty()) {
             log.info("No fixtures found for today ({}). Skipping notification.", today);
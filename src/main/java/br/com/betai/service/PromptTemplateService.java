@@ -0,0 +1,214 @@
+package br.com.betai.service;
+
+import br.com.betai.domain.AnalysisContextDTO;
+import br.com.betai.domain.AnalysisData;
+import br.com.betai.domain.Fixture;
+import br.com.betai.utils.AnalysisUtils;
+import br.com.betai.utils.PromptTemplate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Carrega os templates de prompt de {@code classpath:prompts/} na
+ * inicialização. Se {@code gemini.prompt.template-dir} estiver configurado,
+ * arquivos com o mesmo nome nesse diretório têm precedência e são recarregados
+ * quando mudam, sem redeploy. Um template novo só substitui o atual se usar
+ * apenas os slots conhecidos.
+ */
+@Service
+public class PromptTemplateService {
+
+    private static final Logger log = LoggerFactory.getLogger(PromptTemplateService.class);
+
+    static final String ANALYSIS = "analysis";
+    static final String BATCH_ANALYSIS = "batch-analysis";
+    static final String BATCH_GAME = "batch-game";
+    static final String GOLDEN_RULES = "golden-rules";
+    static final String MULTIBET = "multibet";
+    static final String MULTIBET_FIXTURE = "multibet-fixture";
+
+    private static final Map<String, Set<String>> KNOWN_SLOTS = Map.of(ANALYSIS,
+            Set.of("home", "away", "league", "date", "odds", "statistics", "predictions", "rules", "fixtureId"),
+            BATCH_ANALYSIS, Set.of("count", "games", "rules"), BATCH_GAME,
+            Set.of("index", "home", "away", "league", "date", "fixtureId", "odds", "statistics", "predictions"),
+            GOLDEN_RULES, Set.of("home", "away"), MULTIBET, Set.of("fixtures"), MULTIBET_FIXTURE,
+            Set.of("id", "home", "away", "date", "suggestion", "odd", "prob", "goals", "goalsOdd", "fullOdds"));
+
+    private final Map<String, LoadedTemplate> templates = new ConcurrentHashMap<>();
+    private final Path overrideDir;
+    private final StatsPromptCompactor statsPromptCompactor;
+
+    public PromptTemplateService(@Value("${gemini.prompt.template-dir:}") String templateDir,
+            StatsPromptCompactor statsPromptCompactor) {
+        this.statsPromptCompactor = statsPromptCompactor;
+        this.overrideDir = templateDir.isBlank() ? null : Path.of(templateDir);
+        for (String name : KNOWN_SLOTS.keySet()) {
+            templates.put(name, new LoadedTemplate(parse(name, readClasspath(name)), null));
+            reloadOverride(name);
+        }
+        log.info("{} templates de prompt carregados{}", templates.size(),
+                overrideDir != null ? " (override em " + overrideDir + ")" : "");
+    }
+
+    private record LoadedTemplate(PromptTemplate template, FileTime modifiedAt) {
+    }
+
+    /**
+     * Prompt de um único jogo. As estatísticas e previsões são resumidas aqui
+     * (quando {@code gemini.prompt.compact-stats} está ligado), de modo que a
+     * fila e a análise manual passem pelo mesmo caminho.
+     */
+    public String detailedAnalysisPrompt(Fixture fixture, String statistics, String predictions) {
+        String home = fixture.getHomeTeam();
+        String away = fixture.getAwayTeam();
+        StatsPromptCompactor.CompactContext context = statsPromptCompactor.compact(fixture, statistics, predictions);
+        return template(ANALYSIS).render(slots("home", home, "away", away, "league", fixture.getLeagueName(), "date",
+                dateOf(fixture), "odds", oddsSection(fixture), "statistics", context.statistics(), "predictions",
+                context.predictions(), "rules", goldenRules(home, away), "fixtureId", fixture.getId()));
+    }
+
+    /**
+     * Prompt com vários jogos da mesma janela: as regras vão uma única vez e a
+     * resposta esperada é um array JSON com uma análise por jogo.
+     */
+    public String batchAnalysisPrompt(List<AnalysisContextDTO> contexts) {
+        PromptTemplate game = template(BATCH_GAME);
+        StringBuilder games = new StringBuilder();
+        for (int i = 0; i < contexts.size(); i++) {
+            AnalysisContextDTO context = contexts.get(i);
+            Fixture fixture = context.getFixture();
+            StatsPromptCompactor.CompactContext compact = statsPromptCompactor.compact(fixture,
+                    context.getStatistics(), context.getPredictions());
+            if (i > 0) {
+                games.append('\n');
+            }
+            game.renderTo(games,
+                    slots("index", i + 1, "home", fixture.getHomeTeam(), "away", fixture.getAwayTeam(), "league",
+                            fixture.getLeagueName(), "date", dateOf(fixture), "fixtureId", fixture.getId(), "odds",
+                            oddsSection(fixture), "statistics", compact.statistics(), "predictions",
+                            compact.predictions()));
+        }
+
+        return template(BATCH_ANALYSIS).render(
+                slots("count", contexts.size(), "games", games, "rules", goldenRules("mandante", "visitante")));
+    }
+
+    public String multiBetPrompt(List<Fixture> analyzedFixtures) {
+        PromptTemplate fragment = template(MULTIBET_FIXTURE);
+        StringBuilder fixtures = new StringBuilder(analyzedFixtures.size() * 512);
+        for (Fixture f : analyzedFixtures) {
+            AnalysisData m = f.getIaAnalysis();
+            AnalysisUtils.sanitizeAnalysisData(m);
+            String goalsTarget = m.getGoalsMarket().getTarget() != null ? m.getGoalsMarket().getTarget() : "N/A";
+            if (!fixtures.isEmpty()) {
+                fixtures.append(",\n");
+            }
+            fragment.renderTo(fixtures, slots("id", f.getId(), "home", f.getHomeTeam(), "away", f.getAwayTeam(),
+                    "date", f.getDate(), "suggestion", m.getBetSuggestion().getMarket(), "odd",
+                    twoDecimals(m.getBetSuggestion().getOddBookmaker()), "prob",
+                    twoDecimals(m.getBetSuggestion().getProbabilityAi()), "goals", goalsTarget, "goalsOdd",
+                    twoDecimals(m.getGoalsMarket().getOdd()), "fullOdds", f.getOdds() != null ? f.getOdds() : "{}"));
+        }
+        return template(MULTIBET).render(slots("fixtures", fixtures));
+    }
+
+    private String goldenRules(String home, String away) {
+        return template(GOLDEN_RULES).render(slots("home", home, "away", away)).stripTrailing();
+    }
+
+    private static String oddsSection(Fixture fixture) {
+        if (fixture.getOdds() != null && !fixture.getOdds().isEmpty() && !"{ }".equals(fixture.getOdds())
+                && !"{}".equals(fixture.getOdds())) {
+            return "\n--- 💰 ODDS ATUAIS ---\n" + fixture.getOdds() + "\n";
+        }
+        return "";
+    }
+
+    private static String dateOf(Fixture fixture) {
+        return fixture.getDate() != null ? fixture.getDate().toString() : "";
+    }
+
+    // Mesmo arredondamento do %.2f, mas sem depender do Locale padrão
+    private static String twoDecimals(double value) {
+        return BigDecimal.valueOf(value).setScale(2, RoundingMode.HALF_UP).toPlainString();
+    }
+
+    private static Map<String, Object> slots(Object... keyValues) {
+        Map<String, Object> values = new HashMap<>(keyValues.length);
+        for (int i = 0; i < keyValues.length; i += 2) {
+            values.put((String) keyValues[i], keyValues[i + 1]);
+        }
+        return values;
+    }
+
+    private PromptTemplate template(String name) {
+        return templates.get(name).template();
+    }
+
+    @Scheduled(fixedDelayString = "${gemini.prompt.reload-interval-ms:30000}")
+    public void reloadChangedTemplates() {
+        if (overrideDir != null) {
+            KNOWN_SLOTS.keySet().forEach(this::reloadOverride);
+        }
+    }
+
+    private void reloadOverride(String name) {
+        if (overrideDir == null) {
+            return;
+        }
+        Path file = overrideDir.resolve(name + ".txt");
+        LoadedTemplate current = templates.get(name);
+        FileTime modifiedAt = null;
+        try {
+            if (!Files.isRegularFile(file)) {
+                return;
+            }
+            modifiedAt = Files.getLastModifiedTime(file);
+            if (modifiedAt.equals(current.modifiedAt())) {
+                return;
+            }
+            templates.put(name, new LoadedTemplate(parse(name, Files.readString(file)), modifiedAt));
+            log.info("Template de prompt '{}' carregado de {}", name, file);
+        } catch (IOException | IllegalArgumentException e) {
+            // Mantém o template atual e só volta a tentar quando o arquivo mudar de novo
+            templates.put(name, new LoadedTemplate(current.template(), modifiedAt));
+            log.error("Template de prompt '{}' em {} ignorado: {}", name, file, e.getMessage());
+        }
+    }
+
+    private static PromptTemplate parse(String name, String source) {
+        PromptTemplate template = PromptTemplate.parse(source);
+        for (String slot : template.slotNames()) {
+            if (!KNOWN_SLOTS.get(name).contains(slot)) {
+                throw new IllegalArgumentException("slot desconhecido '" + slot + "'");
+            }
+        }
+        return template;
+    }
+
+    private static String readClasspath(String name) {
+        try (InputStream in = new ClassPathResource("prompts/" + name + ".txt").getInputStream()) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new IllegalStateException("Template de prompt não encontrado: prompts/" + name + ".txt", e);
+        }
+    }
+}
@@ -3,8 +3,6 @@ package br.com.betai.service;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
-import software.amazon.awssdk.auth.credentials.DefaultCredentialsProvider;
-import software.amazon.awssdk.regions.Region;
 import software.amazon.awssdk.services.sqs.SqsClient;
 import software.amazon.awssdk.services.sqs.model.SendMessageRequest;
 
@@ -16,20 +14,25 @@ public class SqsService {
 
     private final SqsClient sqsClient;
 
-    public SqsService() {
-        this.sqsClient = SqsClient.builder().region(Region.US_EAST_1)
-                .credentialsProvider(DefaultCredentialsProvider.create()).build();
+    public SqsService(SqsClient sqsClient) {
+        this.sqsClient = sqsClient;
     }
 
-    public void sendToAnalysisQueue(String payloadJson) {
+    /**
+     * Retorna false quando a mensagem não chegou à fila, para o chamador desfazer
+     * o estado QUEUED das partidas.
+     */
+    public boolean sendToAnalysisQueue(String payloadJson) {
         try {
             SendMessageRequest sendMsgRequest = SendMessageRequest.builder().queueUrl(QUEUE_URL)
                     .messageBody(payloadJson).build();
 
             sqsClient.sendMessage(sendMsgRequest);
             log.info("Payload enviado para SQS com sucesso!");
+            return true;
         } catch (Exception e) {
             log.error("Erro ao enviar mensagem para SQS: {}", e.getMessage(), e);
+            return false;
         }
     }
 }
@@ -0,0 +1,215 @@
+package br.com.betai.service;
+
+import br.com.betai.domain.AnalysisDTO;
+import br.com.betai.domain.Fixture;
+import br.com.betai.domain.MatchStats;
+import br.com.betai.domain.TeamStats;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Resume as estatísticas e previsões brutas (JSON da API-Football) em um
+ * {@link AnalysisDTO.StatsSummary} e o renderiza em poucas linhas para o
+ * prompt. Quando o JSON não tem o formato esperado, o texto original é mantido.
+ */
+@Service
+public class StatsPromptCompactor {
+
+    private static final Logger log = LoggerFactory.getLogger(StatsPromptCompactor.class);
+    // Mesma estimativa usada na quota do Gemini (~4 caracteres por token)
+    private static final int CHARS_PER_TOKEN = 4;
+    private static final int FORM_LENGTH = 10;
+    private static final int H2H_GAMES = 5;
+
+    private final ObjectMapper objectMapper;
+    private final DistributionSummary rawTokens;
+    private final DistributionSummary compactTokens;
+
+    @Value("${gemini.prompt.compact-stats:false}")
+    private boolean enabled;
+
+    public StatsPromptCompactor(MeterRegistry meterRegistry) {
+        this.objectMapper = new ObjectMapper().configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        this.rawTokens = DistributionSummary.builder("betai.gemini.prompt.context_tokens").tag("stage", "raw")
+                .description("Tokens estimados de estatísticas + previsões por partida").register(meterRegistry);
+        this.compactTokens = DistributionSummary.builder("betai.gemini.prompt.context_tokens").tag("stage", "compact")
+                .description("Tokens estimados de estatísticas + previsões por partida").register(meterRegistry);
+    }
+
+    public record CompactContext(String statistics, String predictions) {
+    }
+
+    public CompactContext compact(Fixture fixture, String statistics, String predictions) {
+        int before = estimateTokens(statistics) + estimateTokens(predictions);
+        rawTokens.record(before);
+        if (!enabled) {
+            return new CompactContext(statistics, predictions);
+        }
+
+        AnalysisDTO.StatsSummary summary = summarize(fixture, statistics, predictions);
+        if (summary == null) {
+            compactTokens.record(before);
+            log.warn("Estatísticas da partida {} fora do formato esperado. Usando JSON completo no prompt.",
+                    fixture.getId());
+            return new CompactContext(statistics, predictions);
+        }
+
+        CompactContext compacted = new CompactContext(render(summary), renderPredictions(predictions));
+        int after = estimateTokens(compacted.statistics()) + estimateTokens(compacted.predictions());
+        compactTokens.record(after);
+        log.info("Contexto da partida {} compactado: ~{} -> ~{} tokens", fixture.getId(), before, after);
+        return compacted;
+    }
+
+    private static int estimateTokens(String text) {
+        return text == null ? 0 : text.length() / CHARS_PER_TOKEN;
+    }
+
+    private AnalysisDTO.StatsSummary summarize(Fixture fixture, String statistics, String predictions) {
+        MatchStats stats;
+        try {
+            stats = objectMapper.readValue(statistics, MatchStats.class);
+        } catch (Exception e) {
+            return null;
+        }
+        if (stats.getHome() == null || stats.getAway() == null || stats.getHome().getGoals() == null
+                || stats.getAway().getGoals() == null) {
+            return null;
+        }
+
+        return AnalysisDTO.StatsSummary.builder().home(teamAnalysis(fixture.getHomeTeam(), stats.getHome()))
+                .away(teamAnalysis(fixture.getAwayTeam(), stats.getAway())).h2h(h2h(predictions)).build();
+    }
+
+    private static AnalysisDTO.TeamAnalysis teamAnalysis(String name, TeamStats stats) {
+        String form = stats.getForm();
+        if (form != null && form.length() > FORM_LENGTH) {
+            form = form.substring(form.length() - FORM_LENGTH);
+        }
+
+        return AnalysisDTO.TeamAnalysis.builder().name(name).form(form).avgGoalsFor(stats.getAvgGoalsFor())
+                .avgGoalsAgainst(stats.getAvgGoalsAgainst()).cleanSheets(stats.getCleanSheets())
+                .failedToScore(stats.getFailedToScore() != null ? stats.getFailedToScore().getTotal() : 0)
+                .over25Percentage(over25Percentage(stats)).avgGoalsForAway(parseDouble(stats.getAvgGoalsForAway()))
+                .goalsMinutes(stats.getGoalsMinutesDistribution()).build();
+    }
+
+    // Jogos em que o time sofreu mais de 2.5 gols, sobre os jogos disputados
+    private static String over25Percentage(TeamStats stats) {
+        if (stats.getGamesPlayed() == 0) {
+            return null;
+        }
+        return String.format(Locale.ROOT, "%.0f%%", (1 - stats.getUnder25Rate()) * 100);
+    }
+
+    private static Double parseDouble(String value) {
+        try {
+            return value != null ? Double.parseDouble(value) : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private AnalysisDTO.H2HStats h2h(String predictions) {
+        JsonNode games = readTree(predictions).path("h2h");
+        if (!games.isArray() || games.isEmpty()) {
+            return null;
+        }
+
+        List<String> results = new ArrayList<>();
+        for (JsonNode game : games) {
+            if (results.size() == H2H_GAMES) {
+                break;
+            }
+            JsonNode goals = game.path("goals");
+            if (goals.path("home").isNumber() && goals.path("away").isNumber()) {
+                results.add(String.format("%s %d-%d %s (%s)", game.path("teams").path("home").path("name").asText(),
+                        goals.path("home").asInt(), goals.path("away").asInt(),
+                        game.path("teams").path("away").path("name").asText(),
+                        game.path("fixture").path("date").asText("").replaceAll("T.*", "")));
+            }
+        }
+        return results.isEmpty() ? null : AnalysisDTO.H2HStats.builder().summary(String.join("; ", results)).build();
+    }
+
+    private JsonNode readTree(String json) {
+        try {
+            return objectMapper.readTree(json);
+        } catch (Exception e) {
+            return objectMapper.missingNode();
+        }
+    }
+
+    private static String render(AnalysisDTO.StatsSummary summary) {
+        StringBuilder out = new StringBuilder();
+        renderTeam(out, "MANDANTE", summary.getHome());
+        renderTeam(out, "VISITANTE", summary.getAway());
+        if (summary.getH2h() != null) {
+            out.append("H2H (recentes): ").append(summary.getH2h().getSummary()).append('\n');
+        }
+        return out.toString();
+    }
+
+    private static void renderTeam(StringBuilder out, String side, AnalysisDTO.TeamAnalysis team) {
+        out.append(side).append(' ').append(team.getName()).append(": forma ")
+                .append(team.getForm() != null ? team.getForm() : "-")
+                .append(String.format(Locale.ROOT, " | gols pró %.2f/j (fora %s) | contra %.2f/j",
+                        team.getAvgGoalsFor(), team.getAvgGoalsForAway() != null ? team.getAvgGoalsForAway() : "-",
+                        team.getAvgGoalsAgainst()))
+                .append(" | sem sofrer ").append(team.getCleanSheets()).append(" | sem marcar ")
+                .append(team.getFailedToScore());
+        if (team.getOver25Percentage() != null) {
+            out.append(" | sofreu +2.5 em ").append(team.getOver25Percentage());
+        }
+        if (team.getGoalsMinutes() != null && !team.getGoalsMinutes().isEmpty()) {
+            out.append(" | gols por minuto: ").append(team.getGoalsMinutes());
+        }
+        out.append('\n');
+    }
+
+    /**
+     * Das previsões só interessam o conselho, os percentuais e o comparativo; o
+     * H2H já entra no resumo das estatísticas.
+     */
+    private String renderPredictions(String predictions) {
+        JsonNode root = readTree(predictions);
+        JsonNode prediction = root.path("predictions");
+        if (prediction.isMissingNode()) {
+            return predictions;
+        }
+
+        StringBuilder out = new StringBuilder();
+        if (prediction.hasNonNull("advice")) {
+            out.append("Conselho: ").append(prediction.get("advice").asText()).append('\n');
+        }
+        JsonNode percent = prediction.path("percent");
+        if (percent.isObject()) {
+            out.append("Percentuais: casa ").append(percent.path("home").asText("-")).append(" | empate ")
+                    .append(percent.path("draw").asText("-")).append(" | fora ")
+                    .append(percent.path("away").asText("-")).append('\n');
+        }
+        if (prediction.hasNonNull("under_over")) {
+            out.append("Gols: ").append(prediction.get("under_over").asText()).append('\n');
+        }
+        JsonNode comparison = root.path("comparison");
+        if (comparison.isObject()) {
+            out.append("Comparativo (casa/fora):");
+            comparison.properties().forEach(entry -> out.append(' ').append(entry.getKey()).append(' ')
+                    .append(entry.getValue().path("home").asText("-")).append('/')
+                    .append(entry.getValue().path("away").asText("-")).append(';'));
+            out.append('\n');
+        }
+        return out.length() > 0 ? out.toString() : predictions;
+    }
+}
@@ -0,0 +1,230 @@
+package br.com.betai.utils;
+
+import br.com.betai.domain.AnalysisData;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Mapeamento direto entre o atributo {@code iaAnalysis} do DynamoDB e
+ * {@link AnalysisData}, sem passar por JSON nem por reflexão do ObjectMapper. Os
+ * nomes dos campos seguem os {@code @JsonProperty} da classe, mantendo o
+ * formato já gravado na tabela.
+ */
+public class AnalysisDataAttributeMapper {
+
+    private AnalysisDataAttributeMapper() {
+        // Utility class
+    }
+
+    public static AnalysisData fromAttributeValue(AttributeValue value) {
+        Map<String, AttributeValue> m = map(value);
+        if (m == null) {
+            return null;
+        }
+
+        AnalysisData data = new AnalysisData();
+        data.setFixture(toFixtureData(map(m.get("fixture"))));
+        data.setBetSuggestion(toBetSuggestion(map(m.get("bet_suggestion"))));
+        data.setGoalsMarket(toGoalsMarket(map(m.get("goals_market"))));
+        data.setProbabilities(toProbabilities(map(m.get("probabilities"))));
+        data.setPrediction(toPrediction(map(m.get("prediction"))));
+        data.setWinner(toWinner(map(m.get("winner"))));
+        data.setWinOrDraw(bool(m.get("win_or_draw")));
+        return data;
+    }
+
+    public static AttributeValue toAttributeValue(AnalysisData data) {
+        if (data == null) {
+            return AttributeValue.builder().nul(true).build();
+        }
+
+        Map<String, AttributeValue> m = new HashMap<>();
+        if (data.getFixture() != null) {
+            AnalysisData.FixtureData fixture = data.getFixture();
+            Map<String, AttributeValue> fm = new HashMap<>();
+            putNumber(fm, "id", fixture.getId());
+            if (fixture.getTeams() != null) {
+                Map<String, AttributeValue> teams = new HashMap<>();
+                putString(teams, "home", fixture.getTeams().getHome());
+                putString(teams, "away", fixture.getTeams().getAway());
+                fm.put("teams", mapValue(teams));
+            }
+            putString(fm, "date", fixture.getDate());
+            m.put("fixture", mapValue(fm));
+        }
+        if (data.getBetSuggestion() != null) {
+            AnalysisData.BetSuggestion bet = data.getBetSuggestion();
+            Map<String, AttributeValue> bm = new HashMap<>();
+            putString(bm, "market", bet.getMarket());
+            putNumber(bm, "odd_bookmaker", bet.getOddBookmaker());
+            putNumber(bm, "odd_fair_poisson", bet.getOddFairPoisson());
+            putNumber(bm, "probability_ai", bet.getProbabilityAi());
+            putNumber(bm, "expected_value", bet.getExpectedValue());
+            putString(bm, "status_ev", bet.getStatusEv());
+            putString(bm, "justification", bet.getJustification());
+            m.put("bet_suggestion", mapValue(bm));
+        }
+        if (data.getGoalsMarket() != null) {
+            Map<String, AttributeValue> gm = new HashMap<>();
+            putString(gm, "target", data.getGoalsMarket().getTarget());
+            putNumber(gm, "odd", data.getGoalsMarket().getOdd());
+            m.put("goals_market", mapValue(gm));
+        }
+        if (data.getProbabilities() != null) {
+            AnalysisData.Probabilities p = data.getProbabilities();
+            Map<String, AttributeValue> pm = new HashMap<>();
+            putNumber(pm, "home_win", p.getHomeWin());
+            putNumber(pm, "draw", p.getDraw());
+            putNumber(pm, "away_win", p.getAwayWin());
+            putString(pm, "confidence_level", p.getConfidenceLevel());
+            m.put("probabilities", mapValue(pm));
+        }
+        if (data.getPrediction() != null) {
+            Map<String, AttributeValue> cm = new HashMap<>();
+            putString(cm, "correct_score", data.getPrediction().getCorrectScore());
+            putNumber(cm, "score_odd", data.getPrediction().getScoreOdd());
+            m.put("prediction", mapValue(cm));
+        }
+        if (data.getWinner() != null) {
+            Map<String, AttributeValue> wm = new HashMap<>();
+            putNumber(wm, "id", data.getWinner().getId());
+            putString(wm, "name", data.getWinner().getName());
+            m.put("winner", mapValue(wm));
+        }
+        m.put("win_or_draw", AttributeValue.builder().bool(data.isWinOrDraw()).build());
+        return mapValue(m);
+    }
+
+    private static AnalysisData.FixtureData toFixtureData(Map<String, AttributeValue> m) {
+        if (m == null) {
+            return null;
+        }
+        AnalysisData.FixtureData fixture = new AnalysisData.FixtureData();
+        fixture.setId(lng(m.get("id")));
+        fixture.setDate(str(m.get("date")));
+        Map<String, AttributeValue> teams = map(m.get("teams"));
+        if (teams != null) {
+            AnalysisData.TeamsData teamsData = new AnalysisData.TeamsData();
+            teamsData.setHome(str(teams.get("home")));
+            teamsData.setAway(str(teams.get("away")));
+            fixture.setTeams(teamsData);
+        }
+        return fixture;
+    }
+
+    private static AnalysisData.BetSuggestion toBetSuggestion(Map<String, AttributeValue> m) {
+        if (m == null) {
+            return null;
+        }
+        AnalysisData.BetSuggestion bet = new AnalysisData.BetSuggestion();
+        bet.setMarket(str(m.get("market")));
+        bet.setOddBookmaker(dbl(m.get("odd_bookmaker")));
+        bet.setOddFairPoisson(dbl(m.get("odd_fair_poisson")));
+        bet.setProbabilityAi(dbl(m.get("probability_ai")));
+        bet.setExpectedValue(dbl(m.get("expected_value")));
+        bet.setStatusEv(str(m.get("status_ev")));
+        bet.setJustification(str(m.get("justification")));
+        return bet;
+    }
+
+    private static AnalysisData.GoalsMarket toGoalsMarket(Map<String, AttributeValue> m) {
+        if (m == null) {
+            return null;
+        }
+        AnalysisData.GoalsMarket goals = new AnalysisData.GoalsMarket();
+        goals.setTarget(str(m.get("target")));
+        goals.setOdd(dbl(m.get("odd")));
+        return goals;
+    }
+
+    private static AnalysisData.Probabilities toProbabilities(Map<String, AttributeValue> m) {
+        if (m == null) {
+            return null;
+        }
+        AnalysisData.Probabilities probabilities = new AnalysisData.Probabilities();
+        probabilities.setHomeWin(dbl(m.get("home_win")));
+        probabilities.setDraw(dbl(m.get("draw")));
+        probabilities.setAwayWin(dbl(m.get("away_win")));
+        probabilities.setConfidenceLevel(str(m.get("confidence_level")));
+        return probabilities;
+    }
+
+    private static AnalysisData.CorrectScorePrediction toPrediction(Map<String, AttributeValue> m) {
+        if (m == null) {
+            return null;
+        }
+        AnalysisData.CorrectScorePrediction prediction = new AnalysisData.CorrectScorePrediction();
+        prediction.setCorrectScore(str(m.get("correct_score")));
+        prediction.setScoreOdd(dbl(m.get("score_odd")));
+        return prediction;
+    }
+
+    private static AnalysisData.WinnerNode toWinner(Map<String, AttributeValue> m) {
+        if (m == null) {
+            return null;
+        }
+        return new AnalysisData.WinnerNode(lng(m.get("id")), str(m.get("name")));
+    }
+
+    private static Map<String, AttributeValue> map(AttributeValue v) {
+        return v != null && v.hasM() ? v.m() : null;
+    }
+
+    private static String str(AttributeValue v) {
+        if (v == null) {
+            return null;
+        }
+        return v.s() != null ? v.s() : v.n();
+    }
+
+    private static double dbl(AttributeValue v) {
+        String raw = str(v);
+        if (raw == null) {
+            return 0.0;
+        }
+        try {
+            return Double.parseDouble(raw);
+        } catch (NumberFormatException e) {
+            return 0.0;
+        }
+    }
+
+    private static Long lng(AttributeValue v) {
+        String raw = str(v);
+        if (raw == null) {
+            return null;
+        }
+        try {
+            return Long.valueOf(raw);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static boolean bool(AttributeValue v) {
+        if (v == null) {
+            return false;
+        }
+        // Itens antigos podem ter o booleano como S "true", aceito pelo readValue
+        return v.bool() != null ? v.bool() : Boolean.parseBoolean(v.s());
+    }
+
+    private static void putString(Map<String, AttributeValue> m, String key, String value) {
+        if (value != null) {
+            m.put(key, AttributeValue.builder().s(value).build());
+        }
+    }
+
+    private static void putNumber(Map<String, AttributeValue> m, String key, Number value) {
+        // NaN/Infinity não são aceitos pelo tipo N do DynamoDB
+        if (value != null && !(value instanceof Double d && !Double.isFinite(d))) {
+            m.put(key, AttributeValue.builder().n(String.valueOf(value)).build());
+        }
+    }
+
+    private static AttributeValue mapValue(Map<String, AttributeValue> m) {
+        return AttributeValue.builder().m(m).build();
+    }
+}
@@ -4,11 +4,12 @@ import br.com.betai.domain.AnalysisData;
 import br.com.betai.domain.Fixture;
 import br.com.betai.domain.MultiBetResponse;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 import java.time.format.DateTimeFormatter;
-import java.util.List;
-import java.util.stream.Collectors;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 public class AnalysisUtils {
 
@@ -16,64 +17,6 @@ public class AnalysisUtils {
         // Utility class
     }
 
-    public static String buildDetailedAnalysisPrompt(Fixture fixture, String statistics, String predictions) {
-        var oddsSection = "";
-        if (fixture.getOdds() != null && !fixture.getOdds().isEmpty() && !"{ }".equals(fixture.getOdds())
-                && !"{}".equals(fixture.getOdds())) {
-            oddsSection = String.format("\n--- 💰 ODDS ATUAIS ---\n%s\n", fixture.getOdds());
-        }
-
-        return buildPrompt(fixture.getHomeTeam(), fixture.getAwayTeam(), fixture.getLeagueName(), oddsSection,
-                statistics, predictions, fixture.getId(),
-                fixture.getDate() != null ? fixture.getDate().toString() : "");
-    }
-
-    private static String buildPrompt(String home, String away, String league, String oddsSection, String statistics,
-            String predictions, Long fixtureId, String date) {
-        return String.format(
-                """
-                        Você é um Especialista Sênior em Apostas Esportivas e Cientista de Dados. Sua reputação depende da ACERTIVIDADE técnica e lucros a longo prazo.
-                        Sua tarefa: Gerar uma análise técnica INDEPENDENTE, CRÍTICA e REALISTA em JSON para o jogo %s x %s (%s) em %s.
-
-                        --- CONTEXTO E ODDS ---
-                        %s
-                        --- ESTATÍSTICAS RECENTES ---
-                        %s
-                        --- MODELOS DE REFERÊNCIA (USE COM CAUTELA - PODEM ESTAR DESATUALIZADOS) ---
-                        %s
-
-                        REGRAS DE OURO PARA MÁXIMA ACERTIVIDADE:
-                        1. LÓGICA DE MERCADO (CRUCIAL): As odds são definidas por bilhões de dólares em dados. Se o mercado dá @1.40 para o time A, ele é o favorito técnico por um motivo. Você só deve ir contra o mercado se encontrar notícias "frescas" (hoje/ontem) que os modelos matemáticos ainda não processaram (Ex: lesão de última hora, surto de virose, time reserva confirmado para poupar).
-                        2. DIFERENÇA DE NÍVEL ENTRE LIGAS: Não compare estatísticas brutas de ligas diferentes. Um time médio da Premier League ou La Liga é frequentemente superior técnica e fisicamente ao líder de ligas menores (Turquia, Grécia, Croácia, Escócia). Em confrontos internacionais ou amistosos, o "nível da liga de origem" pesa muito.
-                        3. ALERTAS DE AMISTOSO (FRIENDLY): Se for um jogo amistoso (Friendly/Amistoso), a motivação é imprevisível e haverá muitos testes. Seja EXTREMAMENTE cauteloso com "Vitória Seca". Dê preferência a mercados de gols ou Dupla Chance se as odds compensarem. Pesquise: "lineups for %s vs %s today".
-                        4. PESQUISA OBRIGATÓRIA (Google Search):
-                           - Verifique o ANO atual: "Resultado [%s] vs [%s] ida 2026" (ou o ano da partida). NÃO use dados de anos passados.
-                           - Busque notícias táticas e clima no clube (crise financeira, salários atrasados, trocas de técnicos).
-                        5. CENÁRIO DE MATA-MATA (CRÍTICO): Se for jogo de volta, você DEVE confirmar quem venceu a ida. O "Aggregate Score" dita a estratégia: quem venceu na ida pode jogar de forma defensiva/pelo empate para classificar.
-                        6. MOMENTUM VS HISTÓRICO: O "Momentum" (últimos 3 jogos) vale mais que a "Invencibilidade de 20 jogos" se a equipe perdeu seu principal jogador recentemente.
-                        7. SEGURANÇA ACIMA DE TUDO: Prefira "Empate Anula Aposta" (DNB) ou "Dupla Chance" se houver qualquer dúvida mínima sobre o favoritismo. O objetivo é manter o "Green".
-                        8. ALERTA DE VÍCIO DE "CASA": Não superestime o mando de campo se a qualidade técnica for discrepante ou se o clima no clube for hostil.
-                        9. CONSISTÊNCIA MATEMÁTICA: Se a Odd é @2.00, sua probabilidade_ai não deve fugir muito de 50%% a menos que você tenha uma informação privilegiada via Search.
-                        10. ANTI-ALUCINAÇÃO: NÃO invente placares. Se não encontrar o resultado de um jogo de ida recente, diga que a informação não foi confirmada. Verifique se o jogo que você encontrou no Search é REALMENTE do torneio e ano atuais.
-
-                        ESTRUTURA OBRIGATÓRIA (JSON):
-                        {
-                        "fixture": { "id": %d, "teams": { "home": "%s", "away": "%s" }, "date": "%s" },
-                        "bet_suggestion": {
-                            "market": "Mercado Selecionado",
-                            "odd_bookmaker": 1.95,
-                            "probability_ai": 0.55,
-                            "justification": "DIRETO AO PONTO: Cite o placar exato da ida que você encontrou e os fatos (desfalques, crise) que justificam sua decisão técnica no dia %s."
-                        },
-                        "goals_market": { "target": "Mais/Menos X.5 Gols", "odd": 1.80 },
-                        "probabilities": { "home_win": 0.55, "draw": 0.25, "away_win": 0.20, "confidence_level": "ALTO" },
-                        "prediction": { "correct_score": "2:1", "score_odd": 8.50 }
-                        }
-                        """,
-                home, away, league, date, oddsSection, statistics, predictions, home, away, home, away, fixtureId, home,
-                away, date, date);
-    }
-
     private static final org.slf4j.Logger log = org.slf4j.LoggerFactory.getLogger(AnalysisUtils.class);
 
     public static AnalysisData processAnalysisData(String aiResponseRaw, ObjectMapper objectMapper)
@@ -115,6 +58,65 @@ public class AnalysisUtils {
             }
         }
 
+        return finalizeAnalysis(analysis);
+    }
+
+    /**
+     * Lê a resposta gerada com {@code responseSchema}: o Gemini garante JSON puro,
+     * então é um único parse direto, sem limpeza de markdown nem reparo.
+     */
+    public static AnalysisData processStructuredAnalysisData(String aiResponseRaw, ObjectMapper objectMapper)
+            throws JsonProcessingException {
+        return finalizeAnalysis(objectMapper.readValue(aiResponseRaw, AnalysisData.class));
+    }
+
+    /**
+     * Lê a resposta de um prompt em lote (array JSON). Elementos que não puderem
+     * ser lidos ficam fora do mapa, para que o chamador refaça esses jogos
+     * individualmente.
+     */
+    public static Map<Long, AnalysisData> processBatchAnalysisData(String aiResponseRaw, ObjectMapper objectMapper) {
+        Map<Long, AnalysisData> analyses = new LinkedHashMap<>();
+        if (aiResponseRaw == null || aiResponseRaw.trim().isEmpty()) {
+            return analyses;
+        }
+
+        String raw = aiResponseRaw.replace("```json", "").replace("```", "").trim();
+        int firstBracket = raw.indexOf('[');
+        int lastBracket = raw.lastIndexOf(']');
+        if (firstBracket == -1 || lastBracket == -1 || lastBracket < firstBracket) {
+            log.error("Array JSON não encontrado na resposta em lote do Gemini: \n{}", aiResponseRaw);
+            return analyses;
+        }
+
+        JsonNode elements;
+        try {
+            elements = objectMapper.readTree(
+                    raw.substring(firstBracket, lastBracket + 1).replaceAll(",\\s*([}\\]])", "$1"));
+        } catch (Exception e) {
+            log.error("Falha no parse da resposta em lote do Gemini: {}", e.getMessage());
+            return analyses;
+        }
+
+        for (JsonNode element : elements) {
+            try {
+                AnalysisData analysis = objectMapper.treeToValue(element, AnalysisData.class);
+                if (analysis.getFixture() == null || analysis.getFixture().getId() == null) {
+                    log.warn("Análise em lote sem fixture.id. Elemento ignorado.");
+                    continue;
+                }
+                analyses.put(analysis.getFixture().getId(), finalizeAnalysis(analysis));
+            } catch (Exception e) {
+                log.warn("Elemento inválido na resposta em lote do Gemini: {}", e.getMessage());
+            }
+        }
+        return analyses;
+    }
+
+    /**
+     * Sanitiza a análise e recalcula no backend probabilidade, odd justa e EV.
+     */
+    public static AnalysisData finalizeAnalysis(AnalysisData analysis) {
         sanitizeAnalysisData(analysis);
 
         // Executar cálculos no backend para garantir precisão total
@@ -221,72 +223,6 @@ public class AnalysisUtils {
         }
     }
 
-    public static String buildMultiBetPrompt(List<Fixture> analyzedFixtures) {
-        String dataJson = analyzedFixtures.stream().map(f -> {
-            AnalysisData m = f.getIaAnalysis();
-            sanitizeAnalysisData(m);
-            String market = m.getBetSuggestion().getMarket();
-            double odd = m.getBetSuggestion().getOddBookmaker();
-            double prob = m.getBetSuggestion().getProbabilityAi();
-            String goalsTarget = m.getGoalsMarket().getTarget() != null ? m.getGoalsMarket().getTarget() : "N/A";
-            double goalsOdd = m.getGoalsMarket().getOdd();
-            String fullOdds = f.getOdds() != null ? f.getOdds() : "{}";
-
-            return String.format(
-                    "{ \"id\": %d, \"home\": \"%s\", \"away\": \"%s\", \"date\": \"%s\", \"suggestion\": \"%s\", \"odd\": %.2f, \"prob\": %.2f, \"goals\": \"%s\", \"goals_odd\": %.2f, \"full_odds_context\": %s }",
-                    f.getId(), f.getHomeTeam(), f.getAwayTeam(), f.getDate(), market, odd, prob, goalsTarget, goalsOdd,
-                    fullOdds);
-        }).collect(Collectors.joining(",\n"));
-
-        return String.format(
-                """
-                        Você é um Especialista em Combinadas (Múltiplas) de Futebol.
-                        Recebi as seguintes análises individuais de IA para partidas de hoje:
-
-                        [
-                        %s
-                        ]
-
-                        SUA MISSÃO:
-                        Baseado nos dados acima, crie EXATAMENTE 2 sugestões de apostas múltiplas:
-                        1. Múltipla Cautelosa (4 Jogos): Foque em jogos com maior probabilidade (prob > 0.70) e odds mais seguras.
-                        2. Múltipla Agressiva (5 Jogos): Busque maior retorno, podendo incluir odds mais altas e mercados mais ousados.
-
-                        REGRAS:
-                        1. Selecione os melhores jogos para cada perfil.
-                        2. MERCADOS: Proibido Handicap. Varie entre Vencedor, Gols e Dupla Chance.
-                        3. Calcule a 'final_odd' multiplicando as odds individuais.
-                        4. Calcule a 'total_probability' baseada nas probabilidades individuais.
-                        5. IDIOMA: Português (Brasil).
-
-                        FORMATO DE SAÍDA:
-                        Retorne APENAS o JSON puro seguindo esta estrutura:
-                        {
-                          "multiples": [
-                            {
-                              "title": "Múltipla Cautelosa (4 Jogos)",
-                              "size": 4,
-                              "legs": [
-                                { "id_fixture": 123, "team_a": "Time A", "team_b": "Time B", "game_date": "dd/MM HH:mm", "market": "Mercado", "odd": 1.50 }
-                              ],
-                              "final_odd": 5.50,
-                              "total_probability": 0.35
-                            },
-                            {
-                              "title": "Múltipla Agressiva (5 Jogos)",
-                              "size": 5,
-                              "legs": [
-                                { "id_fixture": 456, "team_a": "Time C", "team_b": "Time D", "game_date": "dd/MM HH:mm", "market": "Mercado", "odd": 2.10 }
-                              ],
-                              "final_odd": 15.80,
-                              "total_probability": 0.15
-                            }
-                          ]
-                        }
-                        """,
-                dataJson);
-    }
-
     public static MultiBetResponse processMultiBetData(String aiResponseRaw, ObjectMapper objectMapper)
             throws JsonProcessingException {
         String raw = aiResponseRaw.replace("```json", "").replace("```", "").trim();
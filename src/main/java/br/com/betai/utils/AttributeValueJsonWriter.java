@@ -0,0 +1,90 @@
+package br.com.betai.utils;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import software.amazon.awssdk.core.SdkBytes;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.Map;
+
+/**
+ * Serializa uma árvore de {@link AttributeValue} diretamente em um
+ * {@link JsonGenerator}, sem montar mapas e listas intermediários. Valores
+ * {@code N} são escritos como números JSON e atributos comprimidos pelo
+ * {@link CompressedAttributeCodec} são expandidos de forma transparente.
+ */
+public class AttributeValueJsonWriter {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private AttributeValueJsonWriter() {
+        // Utility class
+    }
+
+    public static String toJson(AttributeValue value) throws IOException {
+        StringWriter writer = new StringWriter(256);
+        try (JsonGenerator generator = JSON_FACTORY.createGenerator(writer)) {
+            write(generator, value);
+        }
+        return writer.toString();
+    }
+
+    public static void write(JsonGenerator generator, AttributeValue value) throws IOException {
+        if (value == null) {
+            generator.writeNull();
+            return;
+        }
+
+        switch (value.type()) {
+            case M -> {
+                generator.writeStartObject();
+                for (Map.Entry<String, AttributeValue> entry : value.m().entrySet()) {
+                    generator.writeFieldName(entry.getKey());
+                    write(generator, entry.getValue());
+                }
+                generator.writeEndObject();
+            }
+            case L -> {
+                generator.writeStartArray();
+                for (AttributeValue item : value.l()) {
+                    write(generator, item);
+                }
+                generator.writeEndArray();
+            }
+            case S -> generator.writeString(value.s());
+            case N -> generator.writeNumber(value.n());
+            case BOOL -> generator.writeBoolean(value.bool());
+            case SS -> {
+                generator.writeStartArray();
+                for (String item : value.ss()) {
+                    generator.writeString(item);
+                }
+                generator.writeEndArray();
+            }
+            case NS -> {
+                generator.writeStartArray();
+                for (String item : value.ns()) {
+                    generator.writeNumber(item);
+                }
+                generator.writeEndArray();
+            }
+            case B -> {
+                if (CompressedAttributeCodec.isCompressed(value)) {
+                    generator.writeRawValue(CompressedAttributeCodec.decompressToJson(value));
+                } else {
+                    generator.writeBinary(value.b().asByteArray());
+                }
+            }
+            case BS -> {
+                generator.writeStartArray();
+                for (SdkBytes item : value.bs()) {
+                    generator.writeBinary(item.asByteArray());
+                }
+                generator.writeEndArray();
+            }
+            default -> generator.writeNull();
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package br.com.betai.utils;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import software.amazon.awssdk.core.SdkBytes;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Formato compacto para os atributos grandes (stats, predictions, odds): o JSON
+ * do documento é comprimido com GZIP e gravado em um único atributo binário
+ * ({@code B}). O cabeçalho GZIP permite distinguir itens já migrados dos itens
+ * antigos, gravados como {@code M}/{@code L}.
+ */
+public class CompressedAttributeCodec {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private CompressedAttributeCodec() {
+        // Utility class
+    }
+
+    public static boolean isCompressed(AttributeValue value) {
+        if (value == null || value.b() == null) {
+            return false;
+        }
+        ByteBuffer bytes = value.b().asByteBuffer();
+        return bytes.remaining() >= 2 && bytes.get(0) == (byte) 0x1f && bytes.get(1) == (byte) 0x8b;
+    }
+
+    public static AttributeValue compress(AttributeValue value) throws IOException {
+        return compressJson(AttributeValueJsonWriter.toJson(value));
+    }
+
+    public static AttributeValue compressJson(String jsonDocument) throws IOException {
+        byte[] json = jsonDocument.getBytes(StandardCharsets.UTF_8);
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, json.length / 4));
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(json);
+        }
+        return AttributeValue.builder().b(SdkBytes.fromByteArrayUnsafe(out.toByteArray())).build();
+    }
+
+    public static String decompressToJson(AttributeValue value) throws IOException {
+        try (InputStream in = new GZIPInputStream(value.b().asInputStream())) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * Reconstrói a árvore de {@link AttributeValue} a partir do payload comprimido,
+     * para os trechos do mapeamento que navegam o documento campo a campo.
+     */
+    public static AttributeValue decompressToAttributeValue(AttributeValue value) throws IOException {
+        try (InputStream in = new GZIPInputStream(value.b().asInputStream());
+                JsonParser parser = JSON_FACTORY.createParser(in)) {
+            return read(parser, parser.nextToken());
+        }
+    }
+
+    private static AttributeValue read(JsonParser parser, JsonToken token) throws IOException {
+        if (token == null) {
+            return AttributeValue.builder().nul(true).build();
+        }
+        return switch (token) {
+            case START_OBJECT -> {
+                Map<String, AttributeValue> map = new HashMap<>();
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String name = parser.currentName();
+                    map.put(name, read(parser, parser.nextToken()));
+                }
+                yield AttributeValue.builder().m(map).build();
+            }
+            case START_ARRAY -> {
+                List<AttributeValue> list = new ArrayList<>();
+                JsonToken next;
+                while ((next = parser.nextToken()) != JsonToken.END_ARRAY) {
+                    list.add(read(parser, next));
+                }
+                yield AttributeValue.builder().l(list).build();
+            }
+            case VALUE_STRING -> AttributeValue.builder().s(parser.getText()).build();
+            case VALUE_NUMBER_INT, VALUE_NUMBER_FLOAT -> AttributeValue.builder().n(parser.getText()).build();
+            case VALUE_TRUE -> AttributeValue.builder().bool(true).build();
+            case VALUE_FALSE -> AttributeValue.builder().bool(false).build();
+            default -> AttributeValue.builder().nul(true).build();
+        };
+    }
+}
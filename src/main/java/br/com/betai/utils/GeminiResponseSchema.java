@@ -0,0 +1,68 @@
+package br.com.betai.utils;
+
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.introspect.BeanPropertyDefinition;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Gera o {@code responseSchema} do Gemini (subconjunto OpenAPI) a partir das
+ * propriedades Jackson de uma classe, para que o schema acompanhe o DTO sem
+ * manutenção manual.
+ */
+public final class GeminiResponseSchema {
+
+    private GeminiResponseSchema() {
+    }
+
+    /**
+     * @param excluded
+     *            nomes JSON que o backend calcula e o modelo não deve gerar
+     */
+    public static Map<String, Object> forType(ObjectMapper objectMapper, Class<?> type, Set<String> excluded) {
+        return schemaFor(objectMapper, objectMapper.constructType(type), excluded);
+    }
+
+    private static Map<String, Object> schemaFor(ObjectMapper objectMapper, JavaType type, Set<String> excluded) {
+        Class<?> raw = type.getRawClass();
+        if (raw == String.class) {
+            return Map.of("type", "STRING");
+        }
+        if (raw == boolean.class || raw == Boolean.class) {
+            return Map.of("type", "BOOLEAN");
+        }
+        if (raw == int.class || raw == long.class || raw == Integer.class || raw == Long.class) {
+            return Map.of("type", "INTEGER");
+        }
+        if (raw == double.class || raw == float.class || Number.class.isAssignableFrom(raw)) {
+            return Map.of("type", "NUMBER");
+        }
+        if (type.isCollectionLikeType() || type.isArrayType()) {
+            return Map.of("type", "ARRAY", "items", schemaFor(objectMapper, type.getContentType(), excluded));
+        }
+
+        BeanDescription description = objectMapper.getDeserializationConfig().introspect(type);
+        Map<String, Object> properties = new LinkedHashMap<>();
+        for (BeanPropertyDefinition property : description.findProperties()) {
+            if (excluded.contains(property.getName())) {
+                continue;
+            }
+            properties.put(property.getName(), schemaFor(objectMapper, property.getPrimaryType(), excluded));
+        }
+
+        List<String> names = new ArrayList<>(properties.keySet());
+        Map<String, Object> schema = new LinkedHashMap<>();
+        schema.put("type", "OBJECT");
+        schema.put("properties", properties);
+        schema.put("required", names);
+        // Mantém a ordem dos campos igual à do prompt e do DTO
+        schema.put("propertyOrdering", names);
+        return schema;
+    }
+}
@@ -0,0 +1,139 @@
+package br.com.betai.utils;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteArrayFeeder;
+import com.fasterxml.jackson.core.json.JsonReadFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Monta a árvore JSON de uma resposta do modelo à medida que os fragmentos de
+ * texto chegam, usando o parser não bloqueante do Jackson. Texto antes do
+ * primeiro {@code {} (markdown, comentários) e depois do fechamento do objeto
+ * raiz é ignorado. Se o stream for interrompido, {@link #root()} devolve tudo o
+ * que já foi lido por completo.
+ */
+public class IncrementalJsonTreeBuilder {
+
+    private static final Logger log = LoggerFactory.getLogger(IncrementalJsonTreeBuilder.class);
+    private static final JsonFactory JSON_FACTORY = JsonFactory.builder()
+            .enable(JsonReadFeature.ALLOW_TRAILING_COMMA).build();
+
+    private final JsonParser parser;
+    private final ByteArrayFeeder feeder;
+    private final Deque<JsonNode> containers = new ArrayDeque<>();
+    private ObjectNode root;
+    private String pendingField;
+    private boolean started;
+    private boolean complete;
+    private boolean failed;
+
+    public IncrementalJsonTreeBuilder() {
+        try {
+            this.parser = JSON_FACTORY.createNonBlockingByteArrayParser();
+        } catch (IOException e) {
+            throw new IllegalStateException("Não foi possível criar o parser JSON não bloqueante", e);
+        }
+        this.feeder = (ByteArrayFeeder) parser.getNonBlockingInputFeeder();
+    }
+
+    public void feed(String fragment) {
+        if (fragment == null || fragment.isEmpty() || complete || failed) {
+            return;
+        }
+
+        String text = fragment;
+        if (!started) {
+            int firstBrace = text.indexOf('{');
+            if (firstBrace == -1) {
+                return;
+            }
+            started = true;
+            text = text.substring(firstBrace);
+        }
+
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        try {
+            feeder.feedInput(bytes, 0, bytes.length);
+            consumeAvailableTokens();
+        } catch (IOException e) {
+            failed = true;
+            log.warn("JSON inválido no stream do modelo. Mantendo os campos já lidos: {}", e.getMessage());
+        }
+    }
+
+    public boolean hasContent() {
+        return root != null;
+    }
+
+    public boolean isComplete() {
+        return complete;
+    }
+
+    /**
+     * Objeto raiz com todos os valores lidos até agora (parcial se o stream ainda
+     * não terminou ou foi truncado).
+     */
+    public ObjectNode root() {
+        return root;
+    }
+
+    private void consumeAvailableTokens() throws IOException {
+        JsonToken token;
+        while (!complete && (token = parser.nextToken()) != null && token != JsonToken.NOT_AVAILABLE) {
+            switch (token) {
+                case START_OBJECT -> open(JsonNodeFactory.instance.objectNode());
+                case START_ARRAY -> open(JsonNodeFactory.instance.arrayNode());
+                case END_OBJECT, END_ARRAY -> close();
+                case FIELD_NAME -> pendingField = parser.currentName();
+                case VALUE_STRING -> add(JsonNodeFactory.instance.textNode(parser.getText()));
+                case VALUE_NUMBER_INT -> add(JsonNodeFactory.instance.numberNode(parser.getLongValue()));
+                case VALUE_NUMBER_FLOAT -> add(JsonNodeFactory.instance.numberNode(parser.getDoubleValue()));
+                case VALUE_TRUE -> add(JsonNodeFactory.instance.booleanNode(true));
+                case VALUE_FALSE -> add(JsonNodeFactory.instance.booleanNode(false));
+                case VALUE_NULL -> add(JsonNodeFactory.instance.nullNode());
+                default -> {
+                }
+            }
+        }
+    }
+
+    private void open(JsonNode container) {
+        if (root == null) {
+            // O feed só começa no primeiro '{', então a raiz é sempre um objeto
+            root = (ObjectNode) container;
+        } else {
+            add(container);
+        }
+        containers.push(container);
+    }
+
+    private void close() {
+        containers.pop();
+        if (containers.isEmpty()) {
+            complete = true;
+            feeder.endOfInput();
+        }
+    }
+
+    private void add(JsonNode value) {
+        JsonNode parent = containers.peek();
+        if (parent instanceof ObjectNode object) {
+            object.set(pendingField, value);
+            pendingField = null;
+        } else if (parent instanceof ArrayNode array) {
+            array.add(value);
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package br.com.betai.utils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Template de prompt compilado uma única vez em segmentos literais e slots
+ * ({@code {{nome}}}). Com {@code {{nome:json}}} o valor é escapado para caber
+ * dentro de uma string JSON. Todo slot precisa de uma chave no mapa de valores;
+ * valor {@code null} é renderizado como texto vazio. A renderização só
+ * concatena os segmentos, sem reinterpretar o texto a cada chamada.
+ */
+public final class PromptTemplate {
+
+    private static final String OPEN = "{{";
+    private static final String CLOSE = "}}";
+    private static final String JSON_SUFFIX = ":json";
+    // Folga por slot na estimativa inicial do tamanho da saída
+    private static final int SLOT_SIZE_HINT = 64;
+
+    private final List<Segment> segments;
+    private final Set<String> slotNames;
+    private final int literalLength;
+    // Tamanho da última renderização, usado para pré-dimensionar a próxima
+    private volatile int lastRenderedLength;
+
+    private PromptTemplate(List<Segment> segments) {
+        this.segments = List.copyOf(segments);
+        Set<String> names = new LinkedHashSet<>();
+        int literals = 0;
+        for (Segment segment : segments) {
+            if (segment.slot() != null) {
+                names.add(segment.slot());
+            } else {
+                literals += segment.literal().length();
+            }
+        }
+        this.slotNames = Collections.unmodifiableSet(names);
+        this.literalLength = literals;
+        this.lastRenderedLength = literals + names.size() * SLOT_SIZE_HINT;
+    }
+
+    public static PromptTemplate parse(String source) {
+        List<Segment> segments = new ArrayList<>();
+        int position = 0;
+        while (position < source.length()) {
+            int open = source.indexOf(OPEN, position);
+            if (open == -1) {
+                segments.add(Segment.literal(source.substring(position)));
+                break;
+            }
+            int close = source.indexOf(CLOSE, open + OPEN.length());
+            if (close == -1) {
+                throw new IllegalArgumentException("Slot sem fechamento na posição " + open);
+            }
+            if (open > position) {
+                segments.add(Segment.literal(source.substring(position, open)));
+            }
+
+            String slot = source.substring(open + OPEN.length(), close).trim();
+            boolean json = slot.endsWith(JSON_SUFFIX);
+            if (json) {
+                slot = slot.substring(0, slot.length() - JSON_SUFFIX.length());
+            }
+            if (slot.isEmpty()) {
+                throw new IllegalArgumentException("Slot sem nome na posição " + open);
+            }
+            segments.add(Segment.slot(slot, json));
+            position = close + CLOSE.length();
+        }
+        return new PromptTemplate(segments);
+    }
+
+    public Set<String> slotNames() {
+        return slotNames;
+    }
+
+    public String render(Map<String, ?> values) {
+        StringBuilder out = new StringBuilder(Math.max(lastRenderedLength, literalLength));
+        renderTo(out, values);
+        lastRenderedLength = out.length();
+        return out.toString();
+    }
+
+    /**
+     * Renderiza no final de {@code out}, permitindo reaproveitar o mesmo builder
+     * para vários fragmentos (ex.: um por jogo).
+     */
+    public void renderTo(StringBuilder out, Map<String, ?> values) {
+        for (Segment segment : segments) {
+            if (segment.slot() == null) {
+                out.append(segment.literal());
+                continue;
+            }
+            if (!values.containsKey(segment.slot())) {
+                throw new IllegalArgumentException("Valor ausente para o slot '" + segment.slot() + "'");
+            }
+            Object raw = values.get(segment.slot());
+            if (raw == null) {
+                // null vira texto vazio nos dois tipos de slot (e não "null" dentro de uma string JSON)
+                continue;
+            }
+            String value = raw.toString();
+            if (segment.json()) {
+                appendJsonEscaped(out, value);
+            } else {
+                out.append(value);
+            }
+        }
+    }
+
+    static void appendJsonEscaped(StringBuilder out, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> out.append("\\\"");
+                case '\\' -> out.append("\\\\");
+                case '\n' -> out.append("\\n");
+                case '\r' -> out.append("\\r");
+                case '\t' -> out.append("\\t");
+                case '\b' -> out.append("\\b");
+                case '\f' -> out.append("\\f");
+                default -> {
+                    if (c < 0x20) {
+                        out.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        out.append(c);
+                    }
+                }
+            }
+        }
+    }
+
+    private record Segment(String literal, String slot, boolean json) {
+
+        static Segment literal(String text) {
+            return new Segment(text, null, false);
+        }
+
+        static Segment slot(String name, boolean json) {
+            return new Segment(null, name, json);
+        }
+    }
+}
@@ -0,0 +1,261 @@
+package br.com.betai.service;
+
+import br.com.betai.domain.FixtureView;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.http.apache.ApacheHttpClient;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeDefinition;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.BillingMode;
+import software.amazon.awssdk.services.dynamodb.model.GlobalSecondaryIndex;
+import software.amazon.awssdk.services.dynamodb.model.KeySchemaElement;
+import software.amazon.awssdk.services.dynamodb.model.KeyType;
+import software.amazon.awssdk.services.dynamodb.model.Projection;
+import software.amazon.awssdk.services.dynamodb.model.ProjectionType;
+import software.amazon.awssdk.services.dynamodb.model.PutRequest;
+import software.amazon.awssdk.services.dynamodb.model.ScalarAttributeType;
+import software.amazon.awssdk.services.dynamodb.model.WriteRequest;
+
+import java.net.URI;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compara a leitura por data via GSI com o Scan filtrado (referência) em uma
+ * tabela do DynamoDB Local com alguns meses de partidas.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class DynamoDBServiceDateIndexTest {
+
+    private static final String TABLE = "BettingFixtures";
+    private static final String INDEX = "gameDay-gameDate-index";
+    private static final LocalDate FIRST_DAY = LocalDate.of(2025, 1, 1);
+    private static final int DAYS = 90;
+
+    @Container
+    static final GenericContainer<?> DYNAMODB = new GenericContainer<>(
+            DockerImageName.parse("amazon/dynamodb-local:2.5.2")).withExposedPorts(8000);
+
+    private static DynamoDbClient client;
+    private static long nextFixtureId = 1000;
+
+    private DynamoDBService service;
+
+    @BeforeAll
+    static void createTable() {
+        client = DynamoDbClient.builder()
+                .endpointOverride(URI.create("http://" + DYNAMODB.getHost() + ":" + DYNAMODB.getMappedPort(8000)))
+                .region(Region.US_EAST_1)
+                .credentialsProvider(StaticCredentialsProvider.create(AwsBasicCredentials.create("local", "local")))
+                .httpClient(ApacheHttpClient.create()).build();
+
+        client.createTable(r -> r.tableName(TABLE).billingMode(BillingMode.PAY_PER_REQUEST)
+                .attributeDefinitions(attribute("fixtureId"), attribute("gameDay"), attribute("gameDate"))
+                .keySchema(KeySchemaElement.builder().attributeName("fixtureId").keyType(KeyType.HASH).build())
+                .globalSecondaryIndexes(GlobalSecondaryIndex.builder().indexName(INDEX)
+                        .keySchema(KeySchemaElement.builder().attributeName("gameDay").keyType(KeyType.HASH).build(),
+                                KeySchemaElement.builder().attributeName("gameDate").keyType(KeyType.RANGE)
+                                        .build())
+                        .projection(Projection.builder().projectionType(ProjectionType.ALL).build()).build()));
+
+        Random random = new Random(42);
+        List<Map<String, AttributeValue>> items = new ArrayList<>();
+        for (int day = 0; day < DAYS; day++) {
+            // Alguns dias ficam sem jogos
+            int games = random.nextInt(7);
+            for (int game = 0; game < games; game++) {
+                String gameDate = String.format("%sT%02d:%02d:00+00:00", FIRST_DAY.plusDays(day),
+                        12 + random.nextInt(10), 15 * random.nextInt(4));
+                items.add(fixture(gameDate, true));
+            }
+        }
+        putAll(items);
+    }
+
+    @AfterAll
+    static void closeClient() {
+        client.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        service = new DynamoDBService(client, new FixtureDateCache(32, new SimpleMeterRegistry()));
+        ReflectionTestUtils.setField(service, "useDateIndex", true);
+        ReflectionTestUtils.setField(service, "dateIndexName", INDEX);
+        ReflectionTestUtils.setField(service, "dateIndexPartitionKey", "gameDay");
+        ReflectionTestUtils.setField(service, "scanSegments", 1);
+        ReflectionTestUtils.setField(service, "dateIndexVerified", true);
+    }
+
+    @Test
+    void queryReturnsTheSameFixturesAsScanForEveryDayAndView() {
+        int fixtures = 0;
+        for (int day = 0; day < DAYS; day++) {
+            LocalDate date = FIRST_DAY.plusDays(day);
+            for (FixtureView view : FixtureView.values()) {
+                Map<String, Map<String, AttributeValue>> scanned = byFixtureId(service.scanFixturesByDate(date, view));
+                assertEquals(scanned, byFixtureId(service.queryFixturesByDate(date, view)), date + " / " + view);
+                if (view == FixtureView.FULL) {
+                    fixtures += scanned.size();
+                }
+            }
+        }
+        assertTrue(fixtures > DAYS, "a tabela de teste deveria ter vários jogos por dia");
+    }
+
+    @Test
+    void segmentedScanMatchesQuery() {
+        ReflectionTestUtils.setField(service, "scanSegments", 4);
+        for (int day = 0; day < DAYS; day += 7) {
+            LocalDate date = FIRST_DAY.plusDays(day);
+            assertEquals(byFixtureId(service.queryFixturesByDate(date, FixtureView.LISTING)),
+                    byFixtureId(service.scanFixturesByDate(date, FixtureView.LISTING)), date.toString());
+        }
+    }
+
+    @Test
+    void queryIsOrderedByKickoff() {
+        for (int day = 0; day < DAYS; day++) {
+            List<String> kickoffs = service.queryFixturesByDate(FIRST_DAY.plusDays(day), FixtureView.FULL).stream()
+                    .map(item -> item.get("gameDate").s()).toList();
+            assertEquals(kickoffs.stream().sorted().toList(), kickoffs);
+        }
+    }
+
+    @Test
+    void scanIsOrderedByKickoffLikeTheIndex() {
+        ReflectionTestUtils.setField(service, "scanSegments", 4);
+        ReflectionTestUtils.setField(service, "useDateIndex", false);
+        for (int day = 0; day < DAYS; day++) {
+            LocalDate date = FIRST_DAY.plusDays(day);
+            List<String> queried = service.queryFixturesByDate(date, FixtureView.LISTING).stream()
+                    .map(DynamoDBServiceDateIndexTest::kickoff).toList();
+
+            assertEquals(queried, service.scanFixturesByDate(date, FixtureView.LISTING).stream()
+                    .map(DynamoDBServiceDateIndexTest::kickoff).toList(), date.toString());
+            assertEquals(queried, service.streamFixturesByDate(date, FixtureView.ANALYSIS_INPUT)
+                    .map(DynamoDBServiceDateIndexTest::kickoff).toList(), date.toString());
+        }
+    }
+
+    @Test
+    void missingIndexFallsBackToScan() {
+        ReflectionTestUtils.setField(service, "dateIndexName", "missing-index");
+        LocalDate date = FIRST_DAY.plusDays(3);
+
+        List<Map<String, AttributeValue>> items = service.getFixturesByDate(date, FixtureView.FULL);
+
+        assertEquals(byFixtureId(service.scanFixturesByDate(date, FixtureView.FULL)), byFixtureId(items));
+        assertFalse(service.isDateIndexReadable());
+    }
+
+    @Test
+    void partiallyFilledDayIsNotReadFromTheIndexUntilBackfill() {
+        ReflectionTestUtils.setField(service, "dateIndexVerified", false);
+        LocalDate date = FIRST_DAY.plusDays(DAYS + 60);
+        // Só a primeira partida do dia tem gameDay: a Query sozinha devolveria um dia incompleto
+        putAll(List.of(fixture(date + "T16:00:00+00:00", true), fixture(date + "T19:30:00+00:00", false),
+                fixture(date + "T21:45:00+00:00", false)));
+        FixtureGameDayBackfillService backfill = new FixtureGameDayBackfillService(service);
+        ReflectionTestUtils.setField(backfill, "dateIndexPartitionKey", "gameDay");
+
+        backfill.verifyDateIndex();
+        assertFalse(service.isDateIndexReadable());
+        assertEquals(1, service.queryFixturesByDate(date, FixtureView.FULL).size());
+        assertEquals(3, service.streamFixturesByDate(date, FixtureView.LISTING).count());
+        assertEquals(3, service.getFixturesByDate(date, FixtureView.FULL).size());
+
+        assertTrue(backfill.backfillAll() >= 2);
+
+        assertTrue(service.isDateIndexReadable());
+        Map<String, Map<String, AttributeValue>> queried = byFixtureId(
+                service.queryFixturesByDate(date, FixtureView.FULL));
+        assertEquals(3, queried.size());
+        assertEquals(byFixtureId(service.scanFixturesByDate(date, FixtureView.FULL)), queried);
+    }
+
+    @Test
+    void emptyDayReturnsNothingWithoutDisablingTheIndex() {
+        LocalDate date = FIRST_DAY.plusDays(DAYS + 200);
+
+        assertTrue(service.getFixturesByDate(date, FixtureView.LISTING).isEmpty());
+        assertEquals(0, service.streamFixturesByDate(date, FixtureView.LISTING).count());
+        assertTrue(service.isDateIndexReadable());
+    }
+
+    private static Map<String, AttributeValue> fixture(String gameDate, boolean withGameDay) {
+        long id = nextFixtureId++;
+        Map<String, AttributeValue> fixture = Map.of("fixtureId", n(id), "date", s(gameDate), "teams",
+                m(Map.of("home", m(Map.of("id", n(id * 10), "name", s("Casa " + id))), "away",
+                        m(Map.of("id", n(id * 10 + 1), "name", s("Fora " + id))))),
+                "league", m(Map.of("name", s("Liga " + id % 5))), "status", m(Map.of("short", s("NS"), "long",
+                        s("Not Started"))));
+
+        Map<String, AttributeValue> item = new HashMap<>();
+        item.put("fixtureId", s(String.valueOf(id)));
+        item.put("gameDate", s(gameDate));
+        item.put("fixture", m(fixture));
+        item.put("odds", m(Map.of("bookmaker", m(Map.of("name", s("Bet365"))))));
+        item.put("predictions", m(Map.of("predictions", m(Map.of("advice", s("Vitória Casa " + id))), "comparison",
+                m(Map.of("total", s("55%"))))));
+        item.put("stats", m(Map.of("home", m(Map.of("form", s("WWDLW"))))));
+        if (withGameDay) {
+            item.put("gameDay", s(gameDate.substring(0, 10)));
+        }
+        return item;
+    }
+
+    private static void putAll(List<Map<String, AttributeValue>> items) {
+        for (int from = 0; from < items.size(); from += 25) {
+            List<WriteRequest> writes = items.subList(from, Math.min(from + 25, items.size())).stream()
+                    .map(item -> WriteRequest.builder().putRequest(PutRequest.builder().item(item).build()).build())
+                    .toList();
+            client.batchWriteItem(r -> r.requestItems(Map.of(TABLE, writes)));
+        }
+    }
+
+    private static String kickoff(Map<String, AttributeValue> item) {
+        return item.get("fixture").m().get("date").s();
+    }
+
+    private static Map<String, Map<String, AttributeValue>> byFixtureId(List<Map<String, AttributeValue>> items) {
+        return items.stream().collect(Collectors.toMap(item -> item.get("fixtureId").s(), item -> item));
+    }
+
+    private static AttributeDefinition attribute(String name) {
+        return AttributeDefinition.builder().attributeName(name).attributeType(ScalarAttributeType.S).build();
+    }
+
+    private static AttributeValue s(String value) {
+        return AttributeValue.builder().s(value).build();
+    }
+
+    private static AttributeValue n(long value) {
+        return AttributeValue.builder().n(String.valueOf(value)).build();
+    }
+
+    private static AttributeValue m(Map<String, AttributeValue> value) {
+        return AttributeValue.builder().m(value).build();
+    }
+}
@@ -0,0 +1,58 @@
+package br.com.betai.service;
+
+import br.com.betai.domain.FixtureView;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import software.amazon.awssdk.services.dynamodb.model.KeysAndAttributes;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DynamoDBServiceProjectionTest {
+
+    private final DynamoDBService service = new DynamoDBService(null, null);
+
+    @Test
+    void nestedPathsAreKeptWithoutCompressedItems() {
+        KeysAndAttributes keys = service.buildKeysAndAttributes(List.of("1"), FixtureView.SETTLEMENT);
+
+        assertEquals("#fixtureId, #fixture, #odds, #oddsSummary, #predictions.#predictions.#winner, "
+                + "#predictions.#predictions.#advice, #iaAnalysis", keys.projectionExpression());
+        assertEquals("winner", keys.expressionAttributeNames().get("#winner"));
+    }
+
+    @Test
+    void listingReadsOnlyThePredictionsSummary() {
+        KeysAndAttributes keys = service.buildKeysAndAttributes(List.of("1"), FixtureView.LISTING);
+
+        assertEquals("#fixtureId, #fixture, #odds, #oddsSummary, #predictions.#predictions, #iaAnalysis",
+                keys.projectionExpression());
+        assertFalse(keys.projectionExpression().contains("#stats"));
+    }
+
+    @Test
+    void blobAttributesAreProjectedWholeWhenCompressedItemsMayExist() {
+        ReflectionTestUtils.setField(service, "readCompressedBlobs", true);
+
+        KeysAndAttributes keys = service.buildKeysAndAttributes(List.of("1"), FixtureView.SETTLEMENT);
+
+        // Um atributo já comprimido (B) não tem os caminhos aninhados de predictions
+        assertEquals("#fixtureId, #fixture, #odds, #oddsSummary, #predictions, #iaAnalysis",
+                keys.projectionExpression());
+        assertFalse(keys.expressionAttributeNames().containsKey("#winner"));
+    }
+
+    @Test
+    void nonBlobPathsAreKept() {
+        ReflectionTestUtils.setField(service, "readCompressedBlobs", true);
+
+        KeysAndAttributes keys = service.buildKeysAndAttributes(List.of("1"), FixtureView.ANALYSIS_INPUT);
+
+        assertEquals("#fixtureId, #fixture, #odds, #oddsSummary, #stats, #predictions, #iaAnalysis, #hasColdItem, "
+                + "#analysisState, #analysisVersion, #analysisStateAt", keys.projectionExpression());
+        assertTrue(keys.expressionAttributeNames().containsKey("#analysisState"));
+    }
+}
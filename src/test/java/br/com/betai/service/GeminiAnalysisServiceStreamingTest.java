@@ -0,0 +1,126 @@
+package br.com.betai.service;
+
+import br.com.betai.domain.AnalysisData;
+import br.com.betai.domain.Fixture;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class GeminiAnalysisServiceStreamingTest {
+
+    private static final long FIXTURE_ID = 1035037L;
+    private static final String COMPLETE = """
+            {"bet_suggestion": {"market": "Vitória Manchester United", "odd_bookmaker": 1.85,
+             "probability_ai": 0.6, "justification": "Mandante invicto"},
+             "probabilities": {"home_win": 0.6, "draw": 0.25, "away_win": 0.15}}""";
+    // Corte no meio de "probabilities": bet_suggestion chegou inteiro
+    private static final String TRUNCATED = COMPLETE.substring(0, COMPLETE.indexOf("\"draw\""));
+
+    private final GeminiClient geminiClient = mock(GeminiClient.class);
+    private final AnalysisWriteBehindService writeBehind = mock(AnalysisWriteBehindService.class);
+    private final DynamoDBService dynamoDBService = mock(DynamoDBService.class);
+    private final GeminiResponseCache responseCache = mock(GeminiResponseCache.class);
+    private final Deque<String> streams = new ArrayDeque<>();
+    private final Fixture fixture = Fixture.builder().id(FIXTURE_ID).homeTeam("Manchester United").homeTeamId(33L)
+            .awayTeam("Arsenal").awayTeamId(42L).build();
+
+    private GeminiAnalysisService service;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        PromptTemplateService prompts = mock(PromptTemplateService.class);
+        when(prompts.detailedAnalysisPrompt(any(), any(), any())).thenReturn("prompt");
+        when(responseCache.keyFor(anyString(), any())).thenReturn("chave");
+        when(responseCache.get("chave")).thenReturn(Optional.empty());
+        when(geminiClient.isConfigured()).thenReturn(true);
+        when(geminiClient.streamGenerateContent(eq(GeminiBulkhead.Pool.ANALYSIS), anyString(), any(), any()))
+                .thenAnswer(invocation -> {
+                    String text = streams.pop();
+                    invocation.getArgument(3, Consumer.class).accept(text);
+                    boolean truncated = TRUNCATED.equals(text);
+                    return CompletableFuture.completedFuture(new GeminiClient.StreamResult(null, truncated));
+                });
+
+        GeminiRetryPolicy retryPolicy = new GeminiRetryPolicy(2, Duration.ofMillis(1), Duration.ofMillis(1),
+                Duration.ofSeconds(1), new SimpleMeterRegistry());
+        service = new GeminiAnalysisService(geminiClient, writeBehind, dynamoDBService, responseCache,
+                mock(GeminiRateLimiter.class), retryPolicy, prompts, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(service, "streaming", true);
+    }
+
+    @Test
+    void truncatedStreamIsNotSavedAndLeavesFixtureFailed() {
+        streams.add(TRUNCATED);
+        streams.add(TRUNCATED);
+
+        CompletableFuture<AnalysisData> analysis = service.analyzeWithContextAsync(fixture, "{}", "{}");
+
+        Throwable cause = assertThrows(CompletionException.class, analysis::join).getCause();
+        AnalysisData partial = assertInstanceOf(GeminiIncompleteStreamException.class, cause).getPartialAnalysis();
+        assertEquals("Vitória Manchester United", partial.getBetSuggestion().getMarket());
+        assertEquals(Long.valueOf(33L), partial.getWinner().getId());
+
+        verify(geminiClient, times(2)).streamGenerateContent(any(), anyString(), any(), any());
+        verify(writeBehind, never()).enqueue(any(), any());
+        verify(responseCache, never()).put(anyString(), anyString(), any());
+        verify(dynamoDBService).markAnalysisFailed(FIXTURE_ID);
+    }
+
+    @Test
+    void truncatedStreamIsRetriedAndOnlyTheCompleteResponseIsSaved() {
+        streams.add(TRUNCATED);
+        streams.add(COMPLETE);
+
+        AnalysisData analysis = service.analyzeWithContextAsync(fixture, "{}", "{}").join();
+
+        assertEquals(0.15, analysis.getProbabilities().getAwayWin());
+        verify(writeBehind).enqueue(FIXTURE_ID, analysis);
+        verify(responseCache).put(eq("chave"), anyString(), any());
+        verify(dynamoDBService, never()).markAnalysisFailed(any());
+    }
+
+    @Test
+    void synchronousCallerReceivesThePartialAnalysis() {
+        streams.add(TRUNCATED);
+        streams.add(TRUNCATED);
+
+        String text = service.analyzeWithContext(fixture, "{}", "{}");
+
+        assertTrue(text.startsWith("⚠️ Resposta do Gemini incompleta"), text);
+        assertTrue(text.contains("Vitória Manchester United"), text);
+        verify(writeBehind, never()).enqueue(any(), any());
+    }
+
+    @Test
+    void completeStreamIsSavedOnFirstAttempt() {
+        streams.add(COMPLETE);
+
+        AnalysisData analysis = service.analyzeWithContextAsync(fixture, "{}", "{}").join();
+
+        verify(geminiClient, times(1)).streamGenerateContent(any(), anyString(), any(), any());
+        verify(writeBehind).enqueue(FIXTURE_ID, analysis);
+    }
+}
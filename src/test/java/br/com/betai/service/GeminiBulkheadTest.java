@@ -0,0 +1,97 @@
+package br.com.betai.service;
+
+import br.com.betai.service.GeminiBulkhead.Pool;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GeminiBulkheadTest {
+
+    private GeminiBulkhead bulkhead;
+
+    @AfterEach
+    void tearDown() {
+        if (bulkhead != null) {
+            bulkhead.shutdown();
+        }
+    }
+
+    @Test
+    void rejectsAfterMaxWaitWhenPoolIsFull() {
+        bulkhead = new GeminiBulkhead(1, 1, Duration.ofMillis(50), new SimpleMeterRegistry());
+        bulkhead.execute(Pool.ANALYSIS, CompletableFuture::new);
+
+        AtomicBoolean called = new AtomicBoolean();
+        CompletableFuture<String> rejected = bulkhead.execute(Pool.ANALYSIS, () -> {
+            called.set(true);
+            return CompletableFuture.completedFuture("ok");
+        });
+
+        Throwable cause = assertThrows(CompletionException.class, rejected::join).getCause();
+        assertInstanceOf(GeminiBulkheadFullException.class, cause);
+        assertFalse(called.get());
+    }
+
+    @Test
+    void poolsAreIsolated() {
+        bulkhead = new GeminiBulkhead(1, 1, Duration.ofMillis(50), new SimpleMeterRegistry());
+        bulkhead.execute(Pool.ANALYSIS, CompletableFuture::new);
+
+        assertEquals("multipla", bulkhead.execute(Pool.MULTIBET, () -> CompletableFuture.completedFuture("multipla"))
+                .join());
+    }
+
+    @Test
+    void waitingCallRunsWhenPermitIsReleased() throws Exception {
+        bulkhead = new GeminiBulkhead(1, 1, Duration.ofSeconds(5), new SimpleMeterRegistry());
+        CompletableFuture<String> first = new CompletableFuture<>();
+        bulkhead.execute(Pool.ANALYSIS, () -> first);
+
+        CountDownLatch started = new CountDownLatch(1);
+        CompletableFuture<String> second = bulkhead.execute(Pool.ANALYSIS, () -> {
+            started.countDown();
+            return CompletableFuture.completedFuture("segunda");
+        });
+        assertFalse(started.await(50, TimeUnit.MILLISECONDS));
+
+        first.complete("primeira");
+
+        assertEquals("segunda", second.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void permitIsReleasedWhenCallFails() {
+        bulkhead = new GeminiBulkhead(1, 1, Duration.ZERO, new SimpleMeterRegistry());
+        CompletableFuture<String> failing = bulkhead.execute(Pool.ANALYSIS,
+                () -> CompletableFuture.failedFuture(new IOException("connection reset")));
+        assertTrue(failing.isCompletedExceptionally());
+
+        assertEquals("ok", bulkhead.execute(Pool.ANALYSIS, () -> CompletableFuture.completedFuture("ok")).join());
+    }
+
+    @Test
+    void permitIsReleasedWhenSupplierThrows() {
+        bulkhead = new GeminiBulkhead(1, 1, Duration.ZERO, new SimpleMeterRegistry());
+        CompletableFuture<String> failing = bulkhead.execute(Pool.ANALYSIS, () -> {
+            throw new IllegalStateException("falha ao montar a requisição");
+        });
+        assertInstanceOf(IllegalStateException.class,
+                assertThrows(CompletionException.class, failing::join).getCause());
+
+        assertEquals("ok", bulkhead.execute(Pool.ANALYSIS, () -> CompletableFuture.completedFuture("ok")).join());
+    }
+}
@@ -0,0 +1,191 @@
+package br.com.betai.service;
+
+import br.com.betai.service.GeminiCircuitBreaker.State;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GeminiCircuitBreakerTest {
+
+    private static final Duration LONG = Duration.ofMinutes(10);
+
+    @Test
+    void staysClosedBelowMinimumCalls() {
+        GeminiCircuitBreaker breaker = breaker(LONG, LONG, 2);
+
+        for (int i = 0; i < 3; i++) {
+            failed(breaker);
+        }
+
+        assertEquals(State.CLOSED, breaker.state());
+    }
+
+    @Test
+    void opensAtFailureRateAndRejectsWithoutCalling() {
+        GeminiCircuitBreaker breaker = breaker(LONG, LONG, 2);
+        succeeded(breaker);
+        succeeded(breaker);
+        failed(breaker);
+        failed(breaker);
+
+        assertEquals(State.OPEN, breaker.state());
+        assertTrue(breaker.isOpen());
+
+        AtomicBoolean called = new AtomicBoolean();
+        CompletableFuture<String> rejected = breaker.execute(() -> {
+            called.set(true);
+            return CompletableFuture.completedFuture("ok");
+        });
+        assertFalse(called.get());
+        assertInstanceOf(GeminiCircuitOpenException.class, causeOf(rejected));
+    }
+
+    @Test
+    void requestErrorsDoNotOpen() {
+        GeminiCircuitBreaker breaker = breaker(LONG, LONG, 2);
+
+        for (int i = 0; i < 8; i++) {
+            breaker.execute(() -> CompletableFuture.failedFuture(new GeminiHttpException(400, null, "{}")));
+        }
+
+        assertEquals(State.CLOSED, breaker.state());
+    }
+
+    @Test
+    void serverErrorsAndThrottlingOpen() {
+        GeminiCircuitBreaker breaker = breaker(LONG, LONG, 2);
+
+        for (int status : new int[] { 500, 503, 429, 408 }) {
+            breaker.execute(() -> CompletableFuture.failedFuture(new GeminiHttpException(status, null, "{}")));
+        }
+
+        assertEquals(State.OPEN, breaker.state());
+    }
+
+    @Test
+    void opensOnSlowCalls() throws Exception {
+        GeminiCircuitBreaker breaker = breaker(Duration.ofMillis(1), LONG, 2);
+
+        for (int i = 0; i < 4; i++) {
+            CompletableFuture<String> call = new CompletableFuture<>();
+            breaker.execute(() -> call);
+            Thread.sleep(5);
+            call.complete("ok");
+        }
+
+        assertEquals(State.OPEN, breaker.state());
+    }
+
+    @Test
+    void halfOpenLimitsProbesAndClosesWhenTheyPass() {
+        GeminiCircuitBreaker breaker = openedBreaker(2);
+        assertFalse(breaker.isOpen());
+
+        CompletableFuture<String> first = new CompletableFuture<>();
+        CompletableFuture<String> second = new CompletableFuture<>();
+        breaker.execute(() -> first);
+        assertEquals(State.HALF_OPEN, breaker.state());
+        breaker.execute(() -> second);
+        assertInstanceOf(GeminiCircuitOpenException.class,
+                causeOf(breaker.execute(() -> CompletableFuture.completedFuture("excedente"))));
+
+        first.complete("ok");
+        assertEquals(State.HALF_OPEN, breaker.state());
+        second.complete("ok");
+        assertEquals(State.CLOSED, breaker.state());
+    }
+
+    @Test
+    void failedProbeReopens() {
+        GeminiCircuitBreaker breaker = openedBreaker(2);
+
+        failed(breaker);
+
+        assertEquals(State.OPEN, breaker.state());
+    }
+
+    @Test
+    void closedResultsFinishingInHalfOpenAreIgnored() {
+        GeminiCircuitBreaker breaker = breaker(LONG, Duration.ZERO, 2);
+        // Liberadas ainda com o circuito fechado, terminam só depois da abertura
+        CompletableFuture<String> slowFailure = new CompletableFuture<>();
+        CompletableFuture<String> slowSuccess = new CompletableFuture<>();
+        breaker.execute(() -> slowFailure);
+        breaker.execute(() -> slowSuccess);
+        for (int i = 0; i < 4; i++) {
+            failed(breaker);
+        }
+        assertEquals(State.OPEN, breaker.state());
+
+        CompletableFuture<String> probe = new CompletableFuture<>();
+        breaker.execute(() -> probe);
+        assertEquals(State.HALF_OPEN, breaker.state());
+
+        slowFailure.completeExceptionally(new IOException("connection reset"));
+        assertEquals(State.HALF_OPEN, breaker.state());
+        slowSuccess.complete("ok");
+        probe.complete("ok");
+        // A chamada antiga não conta como teste bem-sucedido: falta um
+        assertEquals(State.HALF_OPEN, breaker.state());
+
+        succeeded(breaker);
+        assertEquals(State.CLOSED, breaker.state());
+    }
+
+    @Test
+    void probesFromPreviousHalfOpenAreIgnored() {
+        GeminiCircuitBreaker breaker = openedBreaker(2);
+        CompletableFuture<String> lateProbe = new CompletableFuture<>();
+        breaker.execute(() -> lateProbe);
+        failed(breaker);
+        assertEquals(State.OPEN, breaker.state());
+
+        CompletableFuture<String> probe = new CompletableFuture<>();
+        breaker.execute(() -> probe);
+        assertEquals(State.HALF_OPEN, breaker.state());
+        lateProbe.complete("ok");
+        probe.complete("ok");
+        assertEquals(State.HALF_OPEN, breaker.state());
+
+        succeeded(breaker);
+        assertEquals(State.CLOSED, breaker.state());
+    }
+
+    private static GeminiCircuitBreaker breaker(Duration slowCallDuration, Duration openDuration, int halfOpenCalls) {
+        return new GeminiCircuitBreaker(4, 4, 0.5, 0.8, slowCallDuration, openDuration, halfOpenCalls,
+                new SimpleMeterRegistry());
+    }
+
+    // Aberto com open-duration zero: a próxima chamada já passa para meio aberto
+    private static GeminiCircuitBreaker openedBreaker(int halfOpenCalls) {
+        GeminiCircuitBreaker breaker = breaker(LONG, Duration.ZERO, halfOpenCalls);
+        for (int i = 0; i < 4; i++) {
+            failed(breaker);
+        }
+        assertEquals(State.OPEN, breaker.state());
+        return breaker;
+    }
+
+    private static void succeeded(GeminiCircuitBreaker breaker) {
+        breaker.execute(() -> CompletableFuture.completedFuture("ok"));
+    }
+
+    private static void failed(GeminiCircuitBreaker breaker) {
+        breaker.execute(() -> CompletableFuture.failedFuture(new IOException("connection reset")));
+    }
+
+    private static Throwable causeOf(CompletableFuture<?> future) {
+        return assertThrows(CompletionException.class, future::join).getCause();
+    }
+}
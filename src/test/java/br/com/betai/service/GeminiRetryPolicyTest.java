@@ -0,0 +1,56 @@
+package br.com.betai.service;
+
+import br.com.betai.service.GeminiRetryPolicy.Decision;
+import com.fasterxml.jackson.core.JsonParseException;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.ConnectException;
+import java.net.http.HttpTimeoutException;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class GeminiRetryPolicyTest {
+
+    @Test
+    void serverThrottlingIsRateLimited() {
+        assertEquals(Decision.RATE_LIMITED, GeminiRetryPolicy.classify(http(429)));
+        assertEquals(Decision.RATE_LIMITED, GeminiRetryPolicy.classify(http(503)));
+    }
+
+    @Test
+    void networkTimeoutsAndServerErrorsAreTransient() {
+        assertEquals(Decision.TRANSIENT, GeminiRetryPolicy.classify(new IOException("connection reset")));
+        assertEquals(Decision.TRANSIENT, GeminiRetryPolicy.classify(new ConnectException("refused")));
+        assertEquals(Decision.TRANSIENT, GeminiRetryPolicy.classify(new HttpTimeoutException("timeout")));
+        assertEquals(Decision.TRANSIENT,
+                GeminiRetryPolicy.classify(new UncheckedIOException(new IOException("corpo truncado"))));
+        assertEquals(Decision.TRANSIENT, GeminiRetryPolicy.classify(http(408)));
+        assertEquals(Decision.TRANSIENT, GeminiRetryPolicy.classify(http(500)));
+        assertEquals(Decision.TRANSIENT, GeminiRetryPolicy.classify(http(504)));
+        assertEquals(Decision.TRANSIENT,
+                GeminiRetryPolicy.classify(new GeminiBulkheadFullException(GeminiBulkhead.Pool.ANALYSIS)));
+        assertEquals(Decision.TRANSIENT,
+                GeminiRetryPolicy.classify(new GeminiIncompleteStreamException(1L, true, null)));
+    }
+
+    @Test
+    void everythingElseIsFatal() {
+        assertEquals(Decision.FATAL, GeminiRetryPolicy.classify(http(400)));
+        assertEquals(Decision.FATAL, GeminiRetryPolicy.classify(http(404)));
+        assertEquals(Decision.FATAL, GeminiRetryPolicy.classify(new JsonParseException(null, "JSON inválido")));
+        assertEquals(Decision.FATAL,
+                GeminiRetryPolicy.classify(new UncheckedIOException(new JsonParseException(null, "JSON inválido"))));
+        assertEquals(Decision.FATAL,
+                GeminiRetryPolicy.classify(new IllegalStateException("Gemini retornou resposta vazia")));
+        assertEquals(Decision.FATAL, GeminiRetryPolicy.classify(new IllegalArgumentException("bug")));
+        assertEquals(Decision.FATAL, GeminiRetryPolicy.classify(new NullPointerException()));
+        assertEquals(Decision.FATAL, GeminiRetryPolicy.classify(new GeminiCircuitOpenException(Instant.now())));
+    }
+
+    private static GeminiHttpException http(int status) {
+        return new GeminiHttpException(status, null, "{}");
+    }
+}
@@ -0,0 +1,274 @@
+package br.com.betai.utils;
+
+import br.com.betai.domain.AnalysisData;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compara o {@link AnalysisDataAttributeMapper} com a conversão antiga de
+ * {@code DynamoDBService} ({@code ObjectMapper.convertValue} na gravação,
+ * JSON intermediário + {@code readValue} na leitura). A gravação só difere por
+ * omitir campos nulos (antes {@code NUL}) e números não finitos, que o tipo
+ * {@code N} do DynamoDB rejeita.
+ */
+class AnalysisDataAttributeMapperTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    @Test
+    void fullAnalysisIsWrittenLikeLegacy() {
+        AnalysisData data = fullAnalysis();
+
+        AttributeValue current = AnalysisDataAttributeMapper.toAttributeValue(data);
+
+        assertEquals(legacyToAttributeValue(data), current);
+        assertSameData(data, AnalysisDataAttributeMapper.fromAttributeValue(current));
+    }
+
+    @Test
+    void nullFieldsAreOmittedInsteadOfWrittenAsNul() {
+        AnalysisData data = fullAnalysis();
+        data.setWinner(null);
+        data.getFixture().setTeams(null);
+        data.getBetSuggestion().setJustification(null);
+
+        AttributeValue legacy = legacyToAttributeValue(data);
+        AttributeValue current = AnalysisDataAttributeMapper.toAttributeValue(data);
+
+        assertTrue(legacy.m().get("winner").nul());
+        assertFalse(current.m().containsKey("winner"));
+        assertFalse(current.m().get("fixture").m().containsKey("teams"));
+        assertFalse(current.m().get("bet_suggestion").m().containsKey("justification"));
+        assertEquals(withoutNul(legacy), current);
+        assertSameData(data, AnalysisDataAttributeMapper.fromAttributeValue(current));
+    }
+
+    @Test
+    void nonFiniteDoublesAreNotWrittenAsNumbers() {
+        AnalysisData data = fullAnalysis();
+        data.getBetSuggestion().setExpectedValue(Double.NaN);
+        data.getGoalsMarket().setOdd(Double.POSITIVE_INFINITY);
+
+        AttributeValue legacy = legacyToAttributeValue(data);
+        AttributeValue current = AnalysisDataAttributeMapper.toAttributeValue(data);
+
+        // A conversão antiga gerava N "NaN", recusado pelo DynamoDB
+        assertEquals("NaN", legacy.m().get("bet_suggestion").m().get("expected_value").n());
+        assertFalse(current.m().get("bet_suggestion").m().containsKey("expected_value"));
+        assertFalse(current.m().get("goals_market").m().containsKey("odd"));
+        assertAllNumbersValid(current);
+        assertEquals(0.0, AnalysisDataAttributeMapper.fromAttributeValue(current).getGoalsMarket().getOdd());
+    }
+
+    @Test
+    void nullAnalysisIsWrittenAsNul() {
+        assertEquals(legacyToAttributeValue(null), AnalysisDataAttributeMapper.toAttributeValue(null));
+        assertNull(AnalysisDataAttributeMapper.fromAttributeValue(AttributeValue.builder().nul(true).build()));
+        assertNull(AnalysisDataAttributeMapper.fromAttributeValue(null));
+    }
+
+    @Test
+    void legacyItemWithNulEntriesIsReadLikeLegacy() throws Exception {
+        AnalysisData data = fullAnalysis();
+        data.setWinner(null);
+        data.getFixture().setDate(null);
+        data.getProbabilities().setConfidenceLevel(null);
+
+        assertReadLikeLegacy(legacyToAttributeValue(data));
+    }
+
+    @Test
+    void numbersStoredAsStringsAreReadLikeLegacy() throws Exception {
+        AttributeValue item = m(Map.of(
+                "fixture", m(Map.of("id", s("1035037"), "date", s("2025-08-16T14:00:00+00:00"))),
+                "bet_suggestion", m(Map.of("market", s("Over 2.5"), "odd_bookmaker", s("1.85"), "probability_ai",
+                        n("0.6"), "expected_value", s("0.11"))),
+                "prediction", m(Map.of("correct_score", n("2"), "score_odd", s("9"))),
+                "winner", m(Map.of("id", s("33"), "name", s("Manchester United"))),
+                "win_or_draw", bool(true)));
+
+        AnalysisData read = assertReadLikeLegacy(item);
+        assertEquals(Long.valueOf(1035037L), read.getFixture().getId());
+        assertEquals(1.85, read.getBetSuggestion().getOddBookmaker());
+        assertEquals("2", read.getPrediction().getCorrectScore());
+    }
+
+    @Test
+    void missingSubMapsAndFieldsAreReadLikeLegacy() throws Exception {
+        AttributeValue item = m(Map.of(
+                "fixture", m(Map.of("id", n("1035037"))),
+                "bet_suggestion", m(Map.of("market", s("1X"))),
+                "campo_desconhecido", s("ignorado")));
+
+        AnalysisData read = assertReadLikeLegacy(item);
+        assertNull(read.getGoalsMarket());
+        assertNull(read.getWinner());
+        assertNull(read.getFixture().getTeams());
+        assertEquals(0.0, read.getBetSuggestion().getOddBookmaker());
+        assertFalse(read.isWinOrDraw());
+    }
+
+    @Test
+    void nonFiniteStringsAreReadLikeLegacy() throws Exception {
+        AttributeValue item = m(Map.of(
+                "bet_suggestion", m(Map.of("expected_value", s("NaN"), "odd_bookmaker", s("Infinity"))),
+                "goals_market", m(Map.of("odd", s("-Infinity")))));
+
+        AnalysisData read = assertReadLikeLegacy(item);
+        assertTrue(Double.isNaN(read.getBetSuggestion().getExpectedValue()));
+        assertEquals(Double.NEGATIVE_INFINITY, read.getGoalsMarket().getOdd());
+    }
+
+    @Test
+    void booleanStoredAsStringIsReadLikeLegacy() throws Exception {
+        assertTrue(assertReadLikeLegacy(m(Map.of("win_or_draw", s("true")))).isWinOrDraw());
+        assertFalse(assertReadLikeLegacy(m(Map.of("win_or_draw", s("false")))).isWinOrDraw());
+    }
+
+    private static AnalysisData fullAnalysis() {
+        AnalysisData data = new AnalysisData();
+        AnalysisData.FixtureData fixture = new AnalysisData.FixtureData();
+        fixture.setId(1035037L);
+        fixture.setDate("2025-08-16T14:00:00+00:00");
+        AnalysisData.TeamsData teams = new AnalysisData.TeamsData();
+        teams.setHome("Manchester United");
+        teams.setAway("Arsenal");
+        fixture.setTeams(teams);
+        data.setFixture(fixture);
+
+        AnalysisData.BetSuggestion bet = new AnalysisData.BetSuggestion();
+        bet.setMarket("Over 2.5");
+        bet.setOddBookmaker(1.85);
+        bet.setOddFairPoisson(1.6666666666666667);
+        bet.setProbabilityAi(0.6);
+        bet.setExpectedValue(0.11000000000000021);
+        bet.setStatusEv("POSITIVE");
+        bet.setJustification("Média de gols \"alta\" nos últimos 5 jogos ⚽");
+        data.setBetSuggestion(bet);
+
+        AnalysisData.GoalsMarket goals = new AnalysisData.GoalsMarket();
+        goals.setTarget("Over 2.5");
+        goals.setOdd(1.85);
+        data.setGoalsMarket(goals);
+
+        AnalysisData.Probabilities probabilities = new AnalysisData.Probabilities();
+        probabilities.setHomeWin(0.45);
+        probabilities.setDraw(0.25);
+        probabilities.setAwayWin(0.3);
+        probabilities.setConfidenceLevel("MEDIUM");
+        data.setProbabilities(probabilities);
+
+        AnalysisData.CorrectScorePrediction prediction = new AnalysisData.CorrectScorePrediction();
+        prediction.setCorrectScore("2-1");
+        prediction.setScoreOdd(9.0);
+        data.setPrediction(prediction);
+
+        data.setWinner(new AnalysisData.WinnerNode(33L, "Manchester United"));
+        data.setWinOrDraw(true);
+        return data;
+    }
+
+    private static AnalysisData assertReadLikeLegacy(AttributeValue item) throws Exception {
+        AnalysisData read = AnalysisDataAttributeMapper.fromAttributeValue(item);
+        assertSameData(legacyFromAttributeValue(item), read);
+        return read;
+    }
+
+    private static void assertSameData(AnalysisData expected, AnalysisData actual) {
+        assertEquals(MAPPER.valueToTree(expected), MAPPER.valueToTree(actual));
+    }
+
+    private static void assertAllNumbersValid(AttributeValue value) {
+        if (value.n() != null) {
+            new BigDecimal(value.n());
+        }
+        value.m().values().forEach(AnalysisDataAttributeMapperTest::assertAllNumbersValid);
+    }
+
+    private static AttributeValue withoutNul(AttributeValue value) {
+        if (!value.hasM()) {
+            return value;
+        }
+        Map<String, AttributeValue> map = new HashMap<>();
+        value.m().forEach((key, val) -> {
+            if (!Boolean.TRUE.equals(val.nul())) {
+                map.put(key, withoutNul(val));
+            }
+        });
+        return m(map);
+    }
+
+    // Implementação anterior de DynamoDBService.convertToAttributeValue
+    private static AttributeValue legacyToAttributeValue(Object data) {
+        if (data == null) {
+            return AttributeValue.builder().nul(true).build();
+        }
+        if (data instanceof Map<?, ?> map) {
+            Map<String, AttributeValue> avMap = new HashMap<>();
+            map.forEach((k, v) -> avMap.put(String.valueOf(k), legacyToAttributeValue(v)));
+            return m(avMap);
+        } else if (data instanceof Collection<?> collection) {
+            return AttributeValue.builder()
+                    .l(collection.stream().map(AnalysisDataAttributeMapperTest::legacyToAttributeValue).toList())
+                    .build();
+        } else if (data instanceof Number) {
+            return n(String.valueOf(data));
+        } else if (data instanceof Boolean b) {
+            return bool(b);
+        } else if (data instanceof String text) {
+            return s(text);
+        }
+        return legacyToAttributeValue(MAPPER.convertValue(data, new TypeReference<Map<String, Object>>() {
+        }));
+    }
+
+    // Leitura anterior: AttributeValue -> JSON (N como string) -> readValue
+    private static AnalysisData legacyFromAttributeValue(AttributeValue value) throws Exception {
+        return MAPPER.readValue(MAPPER.writeValueAsString(legacyToRawMap(value)), AnalysisData.class);
+    }
+
+    private static Object legacyToRawMap(AttributeValue v) {
+        if (v.hasM()) {
+            Map<String, Object> map = new HashMap<>();
+            v.m().forEach((key, val) -> map.put(key, legacyToRawMap(val)));
+            return map;
+        } else if (v.hasL()) {
+            return v.l().stream().map(AnalysisDataAttributeMapperTest::legacyToRawMap).toList();
+        } else if (v.s() != null) {
+            return v.s();
+        } else if (v.n() != null) {
+            return v.n();
+        } else if (v.bool() != null) {
+            return v.bool();
+        }
+        return null;
+    }
+
+    private static AttributeValue s(String value) {
+        return AttributeValue.builder().s(value).build();
+    }
+
+    private static AttributeValue n(String value) {
+        return AttributeValue.builder().n(value).build();
+    }
+
+    private static AttributeValue bool(boolean value) {
+        return AttributeValue.builder().bool(value).build();
+    }
+
+    private static AttributeValue m(Map<String, AttributeValue> value) {
+        return AttributeValue.builder().m(value).build();
+    }
+}
@@ -0,0 +1,150 @@
+package br.com.betai.utils;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Compara o {@link AttributeValueJsonWriter} com a conversão antiga de
+ * {@code DynamoDBService.convertAttributeValueToJson} (mapas intermediários +
+ * ObjectMapper). A única diferença esperada é que {@code N} passou a sair como
+ * número JSON em vez de string.
+ */
+class AttributeValueJsonWriterTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    @Test
+    void numbersAreWrittenAsJsonNumbers() throws Exception {
+        AttributeValue value = m(Map.of("int", n("42"), "decimal", n("-0.75"), "big", n("12345678901234567890")));
+
+        JsonNode json = MAPPER.readTree(AttributeValueJsonWriter.toJson(value));
+
+        assertTrue(json.get("int").isIntegralNumber());
+        assertEquals(42, json.get("int").asInt());
+        assertEquals(0, new BigDecimal("-0.75").compareTo(json.get("decimal").decimalValue()));
+        assertEquals(new BigDecimal("12345678901234567890"), json.get("big").decimalValue());
+        assertEquivalentToLegacy(value);
+    }
+
+    @Test
+    void nullValuesMatchLegacy() throws Exception {
+        AttributeValue value = m(Map.of("missing", AttributeValue.builder().nul(true).build(), "present", s("x")));
+
+        assertTrue(MAPPER.readTree(AttributeValueJsonWriter.toJson(value)).get("missing").isNull());
+        assertEquivalentToLegacy(value);
+    }
+
+    @Test
+    void listsMatchLegacy() throws Exception {
+        assertEquivalentToLegacy(l(s("a"), n("1"), AttributeValue.builder().bool(true).build(), l(), m(Map.of())));
+        assertEquivalentToLegacy(m(Map.of("empty", l())));
+    }
+
+    @Test
+    void nestedMapsMatchLegacy() throws Exception {
+        AttributeValue team = m(Map.of("id", n("33"), "name", s("Manchester United"), "winner",
+                AttributeValue.builder().bool(false).build()));
+        AttributeValue fixture = m(Map.of("teams", m(Map.of("home", team, "away", team)), "goals",
+                l(m(Map.of("minute", n("12"), "player", s("Rashford"))), m(Map.of("minute", n("90"), "player",
+                        AttributeValue.builder().nul(true).build())))));
+
+        assertEquivalentToLegacy(m(Map.of("fixture", fixture, "league", m(Map.of("season", n("2025"))))));
+    }
+
+    @Test
+    void stringsAreEscapedLikeLegacy() throws Exception {
+        String tricky = "aspas \" barra \\ quebra\nlinha\ttab \u0001 controle / acentuação ção ⚽ 🔥";
+        AttributeValue value = m(Map.of("comment", s(tricky), "chave \"com\" aspas", s("</script>")));
+
+        assertEquals(legacyToJson(s(tricky)), AttributeValueJsonWriter.toJson(s(tricky)));
+        assertEquals(tricky, MAPPER.readTree(AttributeValueJsonWriter.toJson(value)).get("comment").asText());
+        assertEquivalentToLegacy(value);
+    }
+
+    @Test
+    void nullAttributeWritesJsonNull() throws Exception {
+        assertEquals("null", AttributeValueJsonWriter.toJson(null));
+    }
+
+    private static void assertEquivalentToLegacy(AttributeValue value) throws Exception {
+        assertEquivalent(MAPPER.readTree(legacyToJson(value)), MAPPER.readTree(AttributeValueJsonWriter.toJson(value)),
+                "$");
+    }
+
+    /**
+     * Igualdade estrutural, aceitando número no lugar da string numérica que a
+     * conversão antiga gerava para {@code N}.
+     */
+    private static void assertEquivalent(JsonNode legacy, JsonNode current, String path) {
+        if (current.isNumber()) {
+            assertTrue(legacy.isTextual(), path + ": esperado N como string no formato antigo");
+            assertEquals(0, new BigDecimal(legacy.asText()).compareTo(current.decimalValue()), path);
+        } else if (current.isObject()) {
+            assertTrue(legacy.isObject(), path);
+            assertEquals(legacy.size(), current.size(), path);
+            for (Map.Entry<String, JsonNode> field : current.properties()) {
+                if (!legacy.has(field.getKey())) {
+                    fail(path + ": campo inesperado " + field.getKey());
+                }
+                assertEquivalent(legacy.get(field.getKey()), field.getValue(), path + "." + field.getKey());
+            }
+        } else if (current.isArray()) {
+            assertTrue(legacy.isArray(), path);
+            assertEquals(legacy.size(), current.size(), path);
+            for (int i = 0; i < current.size(); i++) {
+                assertEquivalent(legacy.get(i), current.get(i), path + "[" + i + "]");
+            }
+        } else {
+            assertEquals(legacy, current, path);
+        }
+    }
+
+    // Implementação removida de DynamoDBService (convertToRawMap + ObjectMapper)
+    private static String legacyToJson(AttributeValue value) throws Exception {
+        return MAPPER.writeValueAsString(legacyToRawMap(value));
+    }
+
+    private static Object legacyToRawMap(AttributeValue v) {
+        if (v.hasM()) {
+            Map<String, Object> map = new HashMap<>();
+            v.m().forEach((key, val) -> map.put(key, legacyToRawMap(val)));
+            return map;
+        } else if (v.hasL()) {
+            return v.l().stream().map(AttributeValueJsonWriterTest::legacyToRawMap).toList();
+        } else if (v.s() != null) {
+            return v.s();
+        } else if (v.n() != null) {
+            return v.n();
+        } else if (v.bool() != null) {
+            return v.bool();
+        }
+        return null;
+    }
+
+    private static AttributeValue s(String value) {
+        return AttributeValue.builder().s(value).build();
+    }
+
+    private static AttributeValue n(String value) {
+        return AttributeValue.builder().n(value).build();
+    }
+
+    private static AttributeValue l(AttributeValue... values) {
+        return AttributeValue.builder().l(List.of(values)).build();
+    }
+
+    private static AttributeValue m(Map<String, AttributeValue> value) {
+        return AttributeValue.builder().m(value).build();
+    }
+}
@@ -0,0 +1,108 @@
+package br.com.betai.utils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.core.SdkBytes;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CompressedAttributeCodecTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static final AttributeValue PREDICTIONS = m(Map.of("predictions",
+            m(Map.of("winner", m(Map.of("id", n("33"), "name", s("Manchester United"), "comment", s("Win or draw"))),
+                    "advice", s("Double chance : Manchester United or draw"), "under_over", nul(), "percent",
+                    m(Map.of("home", s("45%"), "draw", s("45%"), "away", s("10%"))))),
+            "h2h", l(m(Map.of("goals", m(Map.of("home", n("2"), "away", n("0"))), "penalty", bool(false))),
+                    m(Map.of("goals", m(Map.of("home", n("1"), "away", n("1.5"))), "penalty", bool(true)))),
+            "comment", s("Aspas \" barra \\ quebra\n acentuação ⚽")));
+
+    @Test
+    void attributeValueRoundTrip() throws Exception {
+        AttributeValue compressed = CompressedAttributeCodec.compress(PREDICTIONS);
+
+        assertTrue(CompressedAttributeCodec.isCompressed(compressed));
+        assertEquals(PREDICTIONS, CompressedAttributeCodec.decompressToAttributeValue(compressed));
+    }
+
+    @Test
+    void jsonRoundTrip() throws Exception {
+        String json = AttributeValueJsonWriter.toJson(PREDICTIONS);
+
+        String restored = CompressedAttributeCodec.decompressToJson(CompressedAttributeCodec.compressJson(json));
+
+        assertEquals(json, restored);
+        assertEquals(MAPPER.readTree(json), MAPPER.readTree(restored));
+    }
+
+    @Test
+    void compressedPayloadStartsWithGzipMagic() throws Exception {
+        byte[] bytes = CompressedAttributeCodec.compressJson("{}").b().asByteArray();
+
+        assertEquals((byte) 0x1f, bytes[0]);
+        assertEquals((byte) 0x8b, bytes[1]);
+    }
+
+    @Test
+    void onlyGzipBinariesAreDetected() {
+        assertFalse(CompressedAttributeCodec.isCompressed(null));
+        assertFalse(CompressedAttributeCodec.isCompressed(PREDICTIONS));
+        assertFalse(CompressedAttributeCodec.isCompressed(s("\u001f\u008b texto")));
+        assertFalse(CompressedAttributeCodec.isCompressed(b(new byte[0])));
+        assertFalse(CompressedAttributeCodec.isCompressed(b(new byte[] { 0x1f })));
+        assertFalse(CompressedAttributeCodec.isCompressed(b(new byte[] { 0x1f, 0x00, 0x08 })));
+        assertFalse(CompressedAttributeCodec.isCompressed(b("{\"predictions\":{}}".getBytes(StandardCharsets.UTF_8))));
+        assertTrue(CompressedAttributeCodec.isCompressed(b(new byte[] { 0x1f, (byte) 0x8b })));
+    }
+
+    @Test
+    void writerExpandsCompressedAttributes() throws Exception {
+        AttributeValue item = m(Map.of("stats", CompressedAttributeCodec.compress(PREDICTIONS), "fixtureId", s("1")));
+
+        assertEquals(MAPPER.readTree(AttributeValueJsonWriter.toJson(m(Map.of("stats", PREDICTIONS, "fixtureId",
+                s("1"))))), MAPPER.readTree(AttributeValueJsonWriter.toJson(item)));
+    }
+
+    @Test
+    void plainBinaryIsNotExpanded() throws Exception {
+        byte[] raw = { 1, 2, 3 };
+
+        assertEquals(MAPPER.writeValueAsString(raw), AttributeValueJsonWriter.toJson(b(raw)));
+    }
+
+    private static AttributeValue s(String value) {
+        return AttributeValue.builder().s(value).build();
+    }
+
+    private static AttributeValue n(String value) {
+        return AttributeValue.builder().n(value).build();
+    }
+
+    private static AttributeValue b(byte[] value) {
+        return AttributeValue.builder().b(SdkBytes.fromByteArray(value)).build();
+    }
+
+    private static AttributeValue bool(boolean value) {
+        return AttributeValue.builder().bool(value).build();
+    }
+
+    private static AttributeValue nul() {
+        return AttributeValue.builder().nul(true).build();
+    }
+
+    private static AttributeValue l(AttributeValue... values) {
+        return AttributeValue.builder().l(List.of(values)).build();
+    }
+
+    private static AttributeValue m(Map<String, AttributeValue> value) {
+        return AttributeValue.builder().m(value).build();
+    }
+}
@@ -0,0 +1,125 @@
+package br.com.betai.utils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IncrementalJsonTreeBuilderTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static final String DOCUMENT = """
+            {"bet_suggestion": {"market": "Vitória \\"Casa\\" ou empate", "odd_bookmaker": 1.85,
+              "justification": "Sequência de 5 jogos \\u00e9 invicta \\ud83d\\udd25 \\\\ barra"},
+             "probabilities": {"home_win": 0.55, "draw": 0.25, "away_win": 0.2},
+             "goals_market": {"target": "Over 2.5", "odd": 2.1, "confidence": 72},
+             "tags": ["forma", "mando", "ção ⚽"], "value_bet": true, "notes": null, "stake": -3}""";
+
+    @Test
+    void everySplitPointYieldsTheSameTree() throws Exception {
+        String expected = MAPPER.readTree(DOCUMENT).toString();
+        for (int split = 0; split <= DOCUMENT.length(); split++) {
+            IncrementalJsonTreeBuilder tree = new IncrementalJsonTreeBuilder();
+            tree.feed(DOCUMENT.substring(0, split));
+            tree.feed(DOCUMENT.substring(split));
+
+            assertTrue(tree.isComplete(), "corte em " + split);
+            assertEquals(expected, tree.root().toString(), "corte em " + split);
+        }
+    }
+
+    @Test
+    void characterByCharacterFeed() throws Exception {
+        IncrementalJsonTreeBuilder tree = new IncrementalJsonTreeBuilder();
+        DOCUMENT.codePoints().forEach(codePoint -> tree.feed(Character.toString(codePoint)));
+
+        assertTrue(tree.isComplete());
+        assertEquals(MAPPER.readTree(DOCUMENT).toString(), tree.root().toString());
+    }
+
+    @Test
+    void escapedQuotesSplitAfterBackslash() {
+        IncrementalJsonTreeBuilder tree = new IncrementalJsonTreeBuilder();
+        tree.feed("{\"market\": \"Vitória \\");
+        tree.feed("\"Casa\\");
+        tree.feed("\" ou empate\"}");
+
+        assertEquals("Vitória \"Casa\" ou empate", tree.root().get("market").asText());
+    }
+
+    @Test
+    void unicodeEscapeSplitAcrossFrames() {
+        IncrementalJsonTreeBuilder tree = new IncrementalJsonTreeBuilder();
+        tree.feed("{\"text\": \"Sequ\\u00");
+        tree.feed("ea");
+        tree.feed("ncia \\ud83d");
+        tree.feed("\\udd25\"}");
+
+        assertEquals("Sequência 🔥", tree.root().get("text").asText());
+    }
+
+    @Test
+    void numbersAndLiteralsSplitAcrossFrames() {
+        IncrementalJsonTreeBuilder tree = new IncrementalJsonTreeBuilder();
+        tree.feed("{\"odd\": 1.");
+        tree.feed("85, \"confidence\": 7");
+        tree.feed("2, \"value_bet\": tr");
+        tree.feed("ue, \"notes\": nu");
+        tree.feed("ll, \"field");
+        tree.feed("_name\": \"x\"}");
+
+        assertEquals(1.85, tree.root().get("odd").asDouble(), 0.0);
+        assertEquals(72, tree.root().get("confidence").asInt());
+        assertTrue(tree.root().get("value_bet").asBoolean());
+        assertTrue(tree.root().get("notes").isNull());
+        assertEquals("x", tree.root().get("field_name").asText());
+    }
+
+    @Test
+    void markdownAroundTheObjectIsIgnored() throws Exception {
+        IncrementalJsonTreeBuilder tree = new IncrementalJsonTreeBuilder();
+        tree.feed("Aqui está a análise:\n```js");
+        tree.feed("on\n{\"a\": 1,");
+        tree.feed(" \"b\": [1, 2]}\n```\nQualquer texto {\"c\": 3}");
+
+        assertTrue(tree.isComplete());
+        assertEquals(MAPPER.readTree("{\"a\": 1, \"b\": [1, 2]}").toString(), tree.root().toString());
+    }
+
+    @Test
+    void truncatedStreamKeepsCompletedFields() {
+        IncrementalJsonTreeBuilder tree = new IncrementalJsonTreeBuilder();
+        tree.feed("{\"market\": \"Over 2.5\", \"probabilities\": {\"home_win\": 0.5, \"draw\": 0.");
+
+        assertTrue(tree.hasContent());
+        assertFalse(tree.isComplete());
+        assertEquals("Over 2.5", tree.root().get("market").asText());
+        assertEquals(0.5, tree.root().get("probabilities").get("home_win").asDouble(), 0.0);
+        assertFalse(tree.root().get("probabilities").has("draw"));
+    }
+
+    @Test
+    void invalidJsonStopsParsingAndKeepsPreviousFields() {
+        IncrementalJsonTreeBuilder tree = new IncrementalJsonTreeBuilder();
+        tree.feed("{\"market\": \"Over 2.5\", \"odd\": }");
+        tree.feed("\"ignored\": 1}");
+
+        assertFalse(tree.isComplete());
+        assertEquals("Over 2.5", tree.root().get("market").asText());
+        assertFalse(tree.root().has("ignored"));
+    }
+
+    @Test
+    void noBraceMeansNoContent() {
+        IncrementalJsonTreeBuilder tree = new IncrementalJsonTreeBuilder();
+        tree.feed("Não consegui analisar esta partida.");
+        tree.feed(null);
+        tree.feed("");
+
+        assertFalse(tree.hasContent());
+        assertFalse(tree.isComplete());
+    }
+}
@@ -0,0 +1,112 @@
+package br.com.betai.utils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PromptTemplateTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    @Test
+    void rendersLiteralsAndSlotsInOrder() {
+        PromptTemplate template = PromptTemplate.parse("Jogo {{home}} x {{away}} ({{ league }}) - {{home}}");
+
+        assertEquals(Set.of("home", "away", "league"), template.slotNames());
+        assertEquals("Jogo Flamengo x Palmeiras (Brasileirão) - Flamengo",
+                template.render(Map.of("home", "Flamengo", "away", "Palmeiras", "league", "Brasileirão")));
+    }
+
+    @Test
+    void templateWithoutSlotsIsRenderedAsIs() {
+        PromptTemplate template = PromptTemplate.parse("sem slots { nem } chaves soltas");
+
+        assertTrue(template.slotNames().isEmpty());
+        assertEquals("sem slots { nem } chaves soltas", template.render(Map.of()));
+        assertEquals("", PromptTemplate.parse("").render(Map.of()));
+    }
+
+    @Test
+    void nonStringValuesUseToString() {
+        PromptTemplate template = PromptTemplate.parse("{{index}}. {{games}}");
+
+        assertEquals("3. a, b", template.render(Map.of("index", 3, "games", new StringBuilder("a, b"))));
+    }
+
+    @Test
+    void missingSlotValueIsRejected() {
+        PromptTemplate template = PromptTemplate.parse("{{home}} x {{away}}");
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> template.render(Map.of("home", "Flamengo")));
+        assertTrue(e.getMessage().contains("'away'"), e.getMessage());
+    }
+
+    @Test
+    void malformedSlotsAreRejectedOnParse() {
+        assertThrows(IllegalArgumentException.class, () -> PromptTemplate.parse("Jogo {{home x"));
+        assertThrows(IllegalArgumentException.class, () -> PromptTemplate.parse("Jogo {{ }}"));
+        assertThrows(IllegalArgumentException.class, () -> PromptTemplate.parse("Jogo {{:json}}"));
+    }
+
+    @Test
+    void nullRendersAsEmptyTextInPlainAndJsonSlots() throws Exception {
+        PromptTemplate template = PromptTemplate.parse("[{{date}}] {\"date\": \"{{date:json}}\"}");
+        Map<String, Object> values = new HashMap<>();
+        values.put("date", null);
+
+        String rendered = template.render(values);
+
+        assertEquals("[] {\"date\": \"\"}", rendered);
+        assertEquals("", MAPPER.readTree(rendered.substring(3)).get("date").asText());
+    }
+
+    @Test
+    void jsonSlotEscapesQuotesBackslashesAndControlCharacters() throws Exception {
+        String tricky = "aspas \" barra \\ quebra\nlinha\r\ttab \b\f \u0001 acentuação ⚽ </script>";
+        PromptTemplate template = PromptTemplate.parse("{\"comment\": \"{{comment:json}}\"}");
+
+        String rendered = template.render(Map.of("comment", tricky));
+
+        assertEquals(tricky, MAPPER.readTree(rendered).get("comment").asText());
+        assertTrue(rendered.contains("\\u0001"), rendered);
+        assertTrue(rendered.contains("\\\"") && rendered.contains("\\\\"), rendered);
+    }
+
+    @Test
+    void plainSlotIsNotEscaped() {
+        PromptTemplate template = PromptTemplate.parse("{{odds}}");
+
+        assertEquals("{\"home\": \"1.80\"}\n", template.render(Map.of("odds", "{\"home\": \"1.80\"}\n")));
+    }
+
+    @Test
+    void renderToAppendsToExistingBuilder() {
+        PromptTemplate game = PromptTemplate.parse("{{index}}:{{home}}");
+        StringBuilder out = new StringBuilder("jogos=");
+
+        List<String> homes = List.of("A", "B");
+        for (int i = 0; i < homes.size(); i++) {
+            game.renderTo(out, Map.of("index", i + 1, "home", homes.get(i)));
+        }
+
+        assertEquals("jogos=1:A2:B", out.toString());
+    }
+
+    @Test
+    void repeatedRendersAreIndependent() {
+        PromptTemplate template = PromptTemplate.parse("{{text}}!");
+
+        assertEquals("uma resposta bem mais longa que a próxima!", template.render(Map.of("text",
+                "uma resposta bem mais longa que a próxima")));
+        assertEquals("curta!", template.render(Map.of("text", "curta")));
+    }
+}